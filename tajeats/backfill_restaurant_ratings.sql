@@ -0,0 +1,32 @@
+-- Rebuild the running review aggregates (sum, count, per-star histogram) from the reviews table.
+-- Run once after deploying; from then on reviews keep the aggregates up to date incrementally.
+BEGIN;
+
+UPDATE restaurants r
+SET review_count = COALESCE(a.review_count, 0),
+    rating_sum   = COALESCE(a.rating_sum, 0),
+    stars1       = COALESCE(a.stars1, 0),
+    stars2       = COALESCE(a.stars2, 0),
+    stars3       = COALESCE(a.stars3, 0),
+    stars4       = COALESCE(a.stars4, 0),
+    stars5       = COALESCE(a.stars5, 0),
+    rating       = CASE WHEN COALESCE(a.review_count, 0) > 0
+                        THEN a.rating_sum::double precision / a.review_count
+                        ELSE 0 END
+FROM restaurants base
+LEFT JOIN (
+    SELECT restaurant_id,
+           COUNT(*)                          AS review_count,
+           SUM(rating)                       AS rating_sum,
+           COUNT(*) FILTER (WHERE rating = 1) AS stars1,
+           COUNT(*) FILTER (WHERE rating = 2) AS stars2,
+           COUNT(*) FILTER (WHERE rating = 3) AS stars3,
+           COUNT(*) FILTER (WHERE rating = 4) AS stars4,
+           COUNT(*) FILTER (WHERE rating = 5) AS stars5
+    FROM reviews
+    WHERE rating BETWEEN 1 AND 5
+    GROUP BY restaurant_id
+) a ON a.restaurant_id = base.id
+WHERE r.id = base.id;
+
+COMMIT;
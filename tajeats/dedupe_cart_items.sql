@@ -0,0 +1,25 @@
+-- Merge duplicate (session_id, dish_id) cart lines so the unique constraint can be created.
+-- Run once before deploying; the surviving line keeps the lowest id and the summed quantity.
+BEGIN;
+
+UPDATE cart_items ci
+SET quantity = d.total_quantity,
+    last_touched_at = d.last_touched_at
+FROM (
+    SELECT MIN(id) AS keep_id, SUM(quantity) AS total_quantity, MAX(last_touched_at) AS last_touched_at
+    FROM cart_items
+    GROUP BY session_id, dish_id
+    HAVING COUNT(*) > 1
+) d
+WHERE ci.id = d.keep_id;
+
+DELETE FROM cart_items ci
+USING cart_items keep
+WHERE ci.session_id = keep.session_id
+  AND ci.dish_id = keep.dish_id
+  AND ci.id > keep.id;
+
+ALTER TABLE cart_items DROP CONSTRAINT IF EXISTS uk_cart_items_session_dish;
+ALTER TABLE cart_items ADD CONSTRAINT uk_cart_items_session_dish UNIQUE (session_id, dish_id);
+
+COMMIT;
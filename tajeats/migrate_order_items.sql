@@ -0,0 +1,15 @@
+-- Move order lines out of cart_items into order_items, snapshotting dish name and price.
+-- Run once after deploying; Hibernate creates the order_items table on startup.
+BEGIN;
+
+INSERT INTO order_items (order_id, dish_id, dish_name, unit_price, quantity)
+SELECT ci.order_id, ci.dish_id, COALESCE(d.name, 'Deleted dish'), COALESCE(d.price, 0), COALESCE(ci.quantity, 1)
+FROM cart_items ci
+LEFT JOIN dishes d ON d.id = ci.dish_id
+WHERE ci.order_id IS NOT NULL;
+
+DELETE FROM cart_items WHERE order_id IS NOT NULL;
+
+ALTER TABLE cart_items DROP COLUMN IF EXISTS order_id;
+
+COMMIT;
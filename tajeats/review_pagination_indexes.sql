@@ -0,0 +1,11 @@
+-- Prepare reviews for keyset pagination. Run outside a transaction (CREATE INDEX CONCURRENTLY)
+-- before deploying, so Hibernate finds the indexes and does not build them with a blocking lock.
+
+-- Keyset cursors need a date on every row; new reviews default to the submission day
+UPDATE reviews SET date = DATE '1970-01-01' WHERE date IS NULL;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reviews_restaurant_date
+    ON reviews (restaurant_id, date, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reviews_restaurant_rating
+    ON reviews (restaurant_id, rating, date, id);
@@ -2,11 +2,13 @@ package com.tajeats.tajeats_backend.config;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
@@ -21,7 +23,8 @@ public class WebConfig implements WebMvcConfigurer {
         
         registry.addResourceHandler("/images/**")
                 .addResourceLocations(absolutePath)
-                .setCachePeriod(3600); // Cache for 1 hour
+                // File names are content hashes (or one-off UUIDs), so a URL never changes content
+                .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable());
     }
 
     @Override
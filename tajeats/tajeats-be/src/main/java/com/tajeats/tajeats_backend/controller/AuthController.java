@@ -2,22 +2,30 @@ package com.tajeats.tajeats_backend.controller;
 
 import com.tajeats.tajeats_backend.dto.AuthResponse;
 import com.tajeats.tajeats_backend.dto.LoginRequest;
+import com.tajeats.tajeats_backend.dto.RefreshTokenRequest;
 import com.tajeats.tajeats_backend.dto.RegisterRequest;
 import com.tajeats.tajeats_backend.dto.UserDTO;
 import com.tajeats.tajeats_backend.exception.AccountPendingApprovalException;
 import com.tajeats.tajeats_backend.exception.InvalidCredentialsException;
 import com.tajeats.tajeats_backend.exception.UserAlreadyExistsException;
 import com.tajeats.tajeats_backend.model.User;
+import com.tajeats.tajeats_backend.service.AuthTokens;
+import com.tajeats.tajeats_backend.service.LoginService;
+import com.tajeats.tajeats_backend.service.RefreshTokenService;
 import com.tajeats.tajeats_backend.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -26,6 +34,8 @@ import java.util.Map;
 public class AuthController {
     
     private final UserService userService;
+    private final LoginService loginService;
+    private final RefreshTokenService refreshTokenService;
     
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody RegisterRequest request) {
@@ -50,39 +60,74 @@ public class AuthController {
     }
     
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest request) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        String clientIp = httpRequest.getRemoteAddr();
+        loginService.checkAllowed(request.getEmail(), clientIp);
+
+        UserDTO user;
         try {
             // First check if user exists and get user info
-            UserDTO user = userService.getUserByEmail(request.getEmail());
-            
-            // Check if restaurant owner is approved
-            if (user.getRole() == User.Role.RESTAURANT_OWNER && !user.getIsApproved()) {
-                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(
-                        Map.of("error", "Account is pending admin approval",
-                               "user", user)
-                );
-            }
+            user = userService.getUserByEmail(request.getEmail());
+        } catch (InvalidCredentialsException e) {
+            loginService.recordFailure(request.getEmail(), clientIp);
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", e.getMessage())));
+        }
             
-            // Check if rider is approved
-            if (user.getRole() == User.Role.RIDER && !user.getIsApproved()) {
-                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(
-                        Map.of("error", "Rider account is pending approval",
-                               "user", user)
-                );
-            }
+        // Check if restaurant owner is approved
+        if (user.getRole() == User.Role.RESTAURANT_OWNER && !user.getIsApproved()) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.FORBIDDEN).body(
+                    Map.of("error", "Account is pending admin approval",
+                           "user", user)
+            ));
+        }
             
-            // Authenticate and generate token
-            String token = userService.authenticate(request.getEmail(), request.getPassword());
+        // Check if rider is approved
+        if (user.getRole() == User.Role.RIDER && !user.getIsApproved()) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.FORBIDDEN).body(
+                    Map.of("error", "Rider account is pending approval",
+                           "user", user)
+            ));
+        }
             
-            AuthResponse response = new AuthResponse(token, user, null);
-            return ResponseEntity.ok(response);
+        // Authenticate and generate token on the login pool, releasing this request thread
+        return loginService.authenticate(request.getEmail(), request.getPassword(), clientIp)
+                .<ResponseEntity<?>>thenApply(tokens -> ResponseEntity.ok(
+                        new AuthResponse(tokens.accessToken(), tokens.refreshToken(), user, null)))
+                .exceptionally(error -> {
+                    if (LoginService.unwrap(error) instanceof InvalidCredentialsException e) {
+                        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", e.getMessage()));
+                    }
+                    throw error instanceof CompletionException ce ? ce : new CompletionException(error);
+                });
+    }
+    
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody RefreshTokenRequest request) {
+        try {
+            AuthTokens tokens = refreshTokenService.refresh(request.getRefreshToken());
+            return ResponseEntity.ok(new AuthResponse(tokens.accessToken(), tokens.refreshToken(), null, null));
         } catch (InvalidCredentialsException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", e.getMessage()));
         }
     }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            @RequestBody(required = false) RefreshTokenRequest request,
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        String accessToken = authHeader != null && authHeader.startsWith("Bearer ") ? authHeader.substring(7) : null;
+        refreshTokenService.logout(request == null ? null : request.getRefreshToken(), accessToken);
+        return ResponseEntity.noContent().build();
+    }
     
     @GetMapping("/me")
     public ResponseEntity<?> getCurrentUser(Authentication authentication) {
+        // Public route, so an expired token arrives here unauthenticated rather than being rejected
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Not authenticated"));
+        }
         try {
             String email = authentication.getName();
             UserDTO user = userService.getUserByEmail(email);
@@ -2,6 +2,7 @@ package com.tajeats.tajeats_backend.controller;
 
 import com.tajeats.tajeats_backend.dto.CartItemDTO;
 import com.tajeats.tajeats_backend.dto.CartItemResponseDTO;
+import com.tajeats.tajeats_backend.dto.CartSummaryDTO;
 import com.tajeats.tajeats_backend.service.CartItemService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -14,35 +15,54 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class CartItemController {
 
+    private static final String SESSION_HEADER = "X-Session-ID";
+
     private final CartItemService cartItemService;
 
     public CartItemController(CartItemService cartItemService) {
         this.cartItemService = cartItemService;
     }
 
+    // Carts are per session; these endpoints take the session from the X-Session-ID header
     @GetMapping
-    public List<CartItemDTO> getCartItems() {
-        return cartItemService.getAll();
+    public List<CartItemDTO> getCartItems(@RequestHeader(SESSION_HEADER) String sessionId) {
+        return cartItemService.getAll(sessionId);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<CartItemDTO> getCartItem(@PathVariable Long id) {
-        return ResponseEntity.ok(cartItemService.getById(id));
+    public ResponseEntity<CartItemDTO> getCartItem(
+            @RequestHeader(SESSION_HEADER) String sessionId,
+            @PathVariable Long id
+    ) {
+        return ResponseEntity.ok(cartItemService.getById(sessionId, id));
     }
 
     @PostMapping
-    public ResponseEntity<CartItemDTO> createCartItem(@RequestBody CartItemDTO dto) {
+    public ResponseEntity<CartItemDTO> createCartItem(
+            @RequestHeader(value = SESSION_HEADER, required = false) String sessionId,
+            @RequestBody CartItemDTO dto
+    ) {
+        if (dto.getSessionId() == null) {
+            dto.setSessionId(sessionId);
+        }
         return ResponseEntity.ok(cartItemService.create(dto));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<CartItemDTO> updateCartItem(@PathVariable Long id, @RequestBody CartItemDTO dto) {
-        return ResponseEntity.ok(cartItemService.update(id, dto));
+    public ResponseEntity<CartItemDTO> updateCartItem(
+            @RequestHeader(SESSION_HEADER) String sessionId,
+            @PathVariable Long id,
+            @RequestBody CartItemDTO dto
+    ) {
+        return ResponseEntity.ok(cartItemService.update(sessionId, id, dto));
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteCartItem(@PathVariable Long id) {
-        cartItemService.delete(id);
+    public ResponseEntity<Void> deleteCartItem(
+            @RequestHeader(SESSION_HEADER) String sessionId,
+            @PathVariable Long id
+    ) {
+        cartItemService.delete(sessionId, id);
         return ResponseEntity.noContent().build();
     }
     
@@ -66,6 +86,14 @@ public class CartItemController {
         return ResponseEntity.ok(cartItemService.addToSessionCart(sessionId, dishId, quantity));
     }
     
+    @GetMapping("/session/{sessionId}/summary")
+    public ResponseEntity<CartSummaryDTO> getSessionCartSummary(
+            @PathVariable String sessionId,
+            @RequestParam(required = false) String deliveryType
+    ) {
+        return ResponseEntity.ok(cartItemService.getSummary(sessionId, deliveryType));
+    }
+    
     @DeleteMapping("/session/{sessionId}")
     public ResponseEntity<Void> clearSessionCart(@PathVariable String sessionId) {
         cartItemService.clearSessionCart(sessionId);
@@ -77,7 +105,7 @@ public class CartItemController {
             @PathVariable String sessionId,
             @PathVariable Long itemId
     ) {
-        cartItemService.delete(itemId);
+        cartItemService.delete(sessionId, itemId);
         return ResponseEntity.noContent().build();
     }
 }
@@ -1,12 +1,25 @@
 package com.tajeats.tajeats_backend.controller;
 
 import com.tajeats.tajeats_backend.dto.DishDTO;
+import com.tajeats.tajeats_backend.dto.MenuImportResultDTO;
+import com.tajeats.tajeats_backend.exception.ValidationException;
+import com.tajeats.tajeats_backend.service.DishAvailabilityService;
 import com.tajeats.tajeats_backend.service.DishService;
+import com.tajeats.tajeats_backend.service.MenuImportService;
+import com.tajeats.tajeats_backend.service.MenuSnapshotService;
+import com.tajeats.tajeats_backend.service.MenuSnapshotService.MenuSnapshot;
+import com.tajeats.tajeats_backend.util.MergePatch;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.List;
+import java.io.InputStream;
+import java.util.Map;
 
 
 @RestController
@@ -15,40 +28,131 @@ import java.util.List;
 public class DishController {
 
     private final DishService dishService;
+    private final MenuSnapshotService menuSnapshotService;
+    private final DishAvailabilityService dishAvailabilityService;
+    private final MenuImportService menuImportService;
 
-    public DishController(DishService dishService) {
+    public DishController(
+            DishService dishService,
+            MenuSnapshotService menuSnapshotService,
+            DishAvailabilityService dishAvailabilityService,
+            MenuImportService menuImportService
+    ) {
         this.dishService = dishService;
+        this.menuSnapshotService = menuSnapshotService;
+        this.dishAvailabilityService = dishAvailabilityService;
+        this.menuImportService = menuImportService;
     }
 
     @GetMapping
-    public List<DishDTO> getAllDishes(@RequestParam(required = false) Long restaurantId) {
+    public ResponseEntity<?> getAllDishes(
+            @RequestParam(required = false) Long restaurantId,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        if (fields != null) {
+            return ResponseEntity.ok(restaurantId != null
+                    ? dishService.getByRestaurant(restaurantId, fields)
+                    : dishService.getAll(fields));
+        }
         if (restaurantId != null) {
-            return dishService.getByRestaurant(restaurantId);
+            return menu(menuSnapshotService.get(restaurantId), ifNoneMatch, acceptEncoding);
+        }
+        return ResponseEntity.ok(dishService.getAll());
+    }
+
+    // Writes the pre-serialized menu bytes as-is, no mapping or JSON serialization
+    private ResponseEntity<?> menu(MenuSnapshot menu, String ifNoneMatch, String acceptEncoding) {
+        if (ifNoneMatch != null && (ifNoneMatch.contains(menu.etag()) || ifNoneMatch.trim().equals("*"))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(menu.etag()).build();
+        }
+
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(menu.etag())
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(menu.gzip());
         }
-        return dishService.getAll();
+        return response.body(menu.identity());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<DishDTO> getDish(@PathVariable Long id) {
+    public ResponseEntity<?> getDish(@PathVariable Long id, @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(dishService.getById(id, fields));
+        }
         return ResponseEntity.ok(dishService.getById(id));
     }
 
     @PostMapping
-    @PreAuthorize("hasAnyRole('ADMIN', 'RESTAURANT_OWNER')")
+    @PreAuthorize("hasAnyRole('ADMIN', 'RESTAURANT_OWNER') and @ownership.isOwner(authentication, #dto.restaurantId)")
     public ResponseEntity<DishDTO> createDish(@RequestBody DishDTO dto) {
         return ResponseEntity.ok(dishService.create(dto));
     }
 
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @PreAuthorize("hasAnyRole('ADMIN', 'RESTAURANT_OWNER') and @ownership.isOwner(authentication, #restaurantId)")
+    public ResponseEntity<MenuImportResultDTO> importMenuCsv(@RequestParam Long restaurantId, InputStream body) {
+        return ResponseEntity.ok(menuImportService.importCsv(restaurantId, body));
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'RESTAURANT_OWNER') and @ownership.isOwner(authentication, #restaurantId)")
+    public ResponseEntity<MenuImportResultDTO> importMenuJson(@RequestParam Long restaurantId, InputStream body) {
+        return ResponseEntity.ok(menuImportService.importJson(restaurantId, body));
+    }
+
     @PutMapping("/{id}")
-    @PreAuthorize("hasAnyRole('ADMIN', 'RESTAURANT_OWNER')")
+    @PreAuthorize("hasAnyRole('ADMIN', 'RESTAURANT_OWNER') and @ownership.canEditDish(authentication, #id, #dto.restaurantId)")
     public ResponseEntity<DishDTO> updateDish(@PathVariable Long id, @RequestBody DishDTO dto) {
         return ResponseEntity.ok(dishService.update(id, dto));
     }
 
+    @PatchMapping(value = "/{id}", consumes = {MergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("hasAnyRole('ADMIN', 'RESTAURANT_OWNER') and @ownership.canEditDish(authentication, #id, #patch['restaurantId'])")
+    public ResponseEntity<Void> patchDish(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody Map<String, Object> patch
+    ) {
+        long version = dishService.patch(id, MergePatch.expectedVersion(ifMatch, patch), patch);
+        return ResponseEntity.noContent().eTag(MergePatch.etag(version)).build();
+    }
+
     @DeleteMapping("/{id}")
-    @PreAuthorize("hasAnyRole('ADMIN', 'RESTAURANT_OWNER')")
+    @PreAuthorize("hasAnyRole('ADMIN', 'RESTAURANT_OWNER') and @ownership.canEditDish(authentication, #id)")
     public ResponseEntity<Void> deleteDish(@PathVariable Long id) {
         dishService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    // --------------------------- AVAILABILITY (86 LIST) ----------------------------
+
+    @GetMapping("/availability")
+    public Map<String, Object> getUnavailableDishes(@RequestParam Long restaurantId) {
+        return Map.of(
+                "restaurantId", restaurantId,
+                "unavailable", dishAvailabilityService.getUnavailable(restaurantId)
+        );
+    }
+
+    @GetMapping(value = "/availability/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAvailability(@RequestParam Long restaurantId) {
+        return dishAvailabilityService.subscribe(restaurantId);
+    }
+
+    @PutMapping("/{id}/availability")
+    @PreAuthorize("hasAnyRole('ADMIN', 'RESTAURANT_OWNER') and @ownership.canEditDish(authentication, #id)")
+    public ResponseEntity<Map<String, Object>> setAvailability(@PathVariable Long id, @RequestBody Map<String, Boolean> body) {
+        Boolean available = body.get("isAvailable");
+        if (available == null) {
+            throw new ValidationException("isAvailable is required");
+        }
+        dishAvailabilityService.setAvailability(id, available);
+        return ResponseEntity.ok(Map.of("id", id, "isAvailable", available));
+    }
 }
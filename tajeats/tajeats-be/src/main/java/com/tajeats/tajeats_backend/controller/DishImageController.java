@@ -4,8 +4,12 @@ import com.tajeats.tajeats_backend.exception.ResourceNotFoundException;
 import com.tajeats.tajeats_backend.model.Dish;
 import com.tajeats.tajeats_backend.repository.DishRepository;
 import com.tajeats.tajeats_backend.service.ImageStorageService;
+import com.tajeats.tajeats_backend.service.ImageVariantService;
+import com.tajeats.tajeats_backend.service.MenuChangedEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -20,8 +24,11 @@ public class DishImageController {
 
     private final DishRepository dishRepository;
     private final ImageStorageService imageStorageService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ImageVariantService imageVariantService;
 
     @PostMapping("/{id}/image")
+    @PreAuthorize("hasAnyRole('ADMIN', 'RESTAURANT_OWNER') and @ownership.canEditDish(authentication, #id)")
     public ResponseEntity<Map<String, String>> uploadDishImage(
             @PathVariable Long id,
             @RequestParam("file") MultipartFile file) {
@@ -29,15 +36,26 @@ public class DishImageController {
         Dish dish = dishRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Dish not found"));
 
-        // Delete old image if exists
-        if (dish.getImage() != null) {
-            imageStorageService.delete(dish.getImage());
-        }
+        String previous = dish.getImage();
 
-        // Store new image
+        // Store new image before releasing the old one, so a failed upload keeps it
         String imageUrl = imageStorageService.store(file, "dishes");
         dish.setImage(imageUrl);
-        dishRepository.save(dish);
+        dish.setImageSrcset(null);
+        dish.setImageWebpSrcset(null);
+        try {
+            dishRepository.save(dish);
+        } catch (RuntimeException e) {
+            // Nothing points at the new file; drop the reference store() took
+            imageStorageService.delete(imageUrl);
+            throw e;
+        }
+        // Release the old file; it is deleted once nothing else uses the same content
+        if (previous != null) {
+            imageStorageService.delete(previous);
+        }
+        eventPublisher.publishEvent(new MenuChangedEvent(dish.getRestaurant().getId()));
+        imageVariantService.generateForDish(dish.getId(), dish.getRestaurant().getId(), imageUrl);
 
         Map<String, String> response = new HashMap<>();
         response.put("imageUrl", imageUrl);
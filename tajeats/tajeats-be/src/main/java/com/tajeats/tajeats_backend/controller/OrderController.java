@@ -3,6 +3,7 @@ package com.tajeats.tajeats_backend.controller;
 import com.tajeats.tajeats_backend.dto.OrderDTO;
 import com.tajeats.tajeats_backend.service.OrderService;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -20,12 +21,18 @@ public class OrderController {
     }
 
     @GetMapping
-    public List<OrderDTO> getAllOrders() {
+    public List<?> getAllOrders(@RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return orderService.getAll(fields);
+        }
         return orderService.getAll();
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<OrderDTO> getOrder(@PathVariable Long id) {
+    public ResponseEntity<?> getOrder(@PathVariable Long id, @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(orderService.getById(id, fields));
+        }
         return ResponseEntity.ok(orderService.getById(id));
     }
 
@@ -34,33 +41,60 @@ public class OrderController {
         return ResponseEntity.ok(orderService.create(dto));
     }
 
+    // Places the session's cart as an order; the body carries customer details and delivery type only
+    @PostMapping("/checkout/{sessionId}")
+    public ResponseEntity<OrderDTO> checkout(@PathVariable String sessionId, @RequestBody OrderDTO dto) {
+        return ResponseEntity.ok(orderService.checkout(sessionId, dto));
+    }
+
     @PutMapping("/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'RESTAURANT_OWNER') and @ownership.canManageOrder(authentication, #id)")
     public ResponseEntity<OrderDTO> updateOrder(@PathVariable Long id, @RequestBody OrderDTO dto) {
         return ResponseEntity.ok(orderService.update(id, dto));
     }
 
     @DeleteMapping("/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'RESTAURANT_OWNER') and @ownership.canManageOrder(authentication, #id)")
     public ResponseEntity<Void> deleteOrder(@PathVariable Long id) {
         orderService.delete(id);
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/restaurant/{restaurantId}")
-    public List<OrderDTO> getOrdersByRestaurant(@PathVariable Long restaurantId) {
+    public List<?> getOrdersByRestaurant(
+            @PathVariable Long restaurantId,
+            @RequestParam(required = false) String fields
+    ) {
+        if (fields != null) {
+            return orderService.getByRestaurant(restaurantId, fields);
+        }
         return orderService.getByRestaurant(restaurantId);
     }
 
     @GetMapping("/restaurant/{restaurantId}/active")
-    public List<OrderDTO> getActiveOrdersByRestaurant(@PathVariable Long restaurantId) {
+    public List<?> getActiveOrdersByRestaurant(
+            @PathVariable Long restaurantId,
+            @RequestParam(required = false) String fields
+    ) {
+        if (fields != null) {
+            return orderService.getActiveByRestaurant(restaurantId, fields);
+        }
         return orderService.getActiveByRestaurant(restaurantId);
     }
 
     @GetMapping("/restaurant/{restaurantId}/delivery")
-    public List<OrderDTO> getDeliveryOrdersByRestaurant(@PathVariable Long restaurantId) {
+    public List<?> getDeliveryOrdersByRestaurant(
+            @PathVariable Long restaurantId,
+            @RequestParam(required = false) String fields
+    ) {
+        if (fields != null) {
+            return orderService.getActiveDeliveryByRestaurant(restaurantId, fields);
+        }
         return orderService.getActiveDeliveryByRestaurant(restaurantId);
     }
 
     @PutMapping("/{id}/status")
+    @PreAuthorize("hasAnyRole('ADMIN', 'RESTAURANT_OWNER', 'RIDER') and @ownership.canUpdateOrderStatus(authentication, #id)")
     public ResponseEntity<OrderDTO> updateOrderStatus(@PathVariable Long id, @RequestBody java.util.Map<String, String> body) {
         String status = body.get("status");
         return ResponseEntity.ok(orderService.updateStatus(id, status));
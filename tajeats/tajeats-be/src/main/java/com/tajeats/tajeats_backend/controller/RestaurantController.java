@@ -1,12 +1,18 @@
 package com.tajeats.tajeats_backend.controller;
 
+import com.tajeats.tajeats_backend.dto.FeedPageDTO;
 import com.tajeats.tajeats_backend.dto.RestaurantDTO;
+import com.tajeats.tajeats_backend.service.DiscoveryFeedService;
 import com.tajeats.tajeats_backend.service.RestaurantService;
+import com.tajeats.tajeats_backend.util.MergePatch;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/restaurants")
@@ -14,18 +20,36 @@ import java.util.List;
 public class RestaurantController {
 
     private final RestaurantService restaurantService;
+    private final DiscoveryFeedService discoveryFeedService;
 
-    public RestaurantController(RestaurantService restaurantService) {
+    public RestaurantController(RestaurantService restaurantService, DiscoveryFeedService discoveryFeedService) {
         this.restaurantService = restaurantService;
+        this.discoveryFeedService = discoveryFeedService;
     }
 
     @GetMapping
-    public List<RestaurantDTO> getAllRestaurants() {
+    public List<?> getAllRestaurants(@RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return restaurantService.getAll(fields);
+        }
         return restaurantService.getAll();
     }
 
+    @GetMapping("/feed")
+    public FeedPageDTO getFeed(
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return discoveryFeedService.getFeed(city, category, page, size);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<RestaurantDTO> getRestaurant(@PathVariable Long id) {
+    public ResponseEntity<?> getRestaurant(@PathVariable Long id, @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(restaurantService.getById(id, fields));
+        }
         return ResponseEntity.ok(restaurantService.getById(id));
     }
 
@@ -36,11 +60,22 @@ public class RestaurantController {
     }
 
     @PutMapping("/{id}")
-    @PreAuthorize("hasAnyRole('ADMIN', 'RESTAURANT_OWNER')")
+    @PreAuthorize("hasAnyRole('ADMIN', 'RESTAURANT_OWNER') and @ownership.isOwner(authentication, #id)")
     public ResponseEntity<RestaurantDTO> updateRestaurant(@PathVariable Long id, @RequestBody RestaurantDTO dto) {
         return ResponseEntity.ok(restaurantService.update(id, dto));
     }
 
+    @PatchMapping(value = "/{id}", consumes = {MergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("hasAnyRole('ADMIN', 'RESTAURANT_OWNER') and @ownership.isOwner(authentication, #id)")
+    public ResponseEntity<Void> patchRestaurant(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody Map<String, Object> patch
+    ) {
+        long version = restaurantService.patch(id, MergePatch.expectedVersion(ifMatch, patch), patch);
+        return ResponseEntity.noContent().eTag(MergePatch.etag(version)).build();
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> deleteRestaurant(@PathVariable Long id) {
@@ -4,8 +4,12 @@ import com.tajeats.tajeats_backend.exception.ResourceNotFoundException;
 import com.tajeats.tajeats_backend.model.Restaurant;
 import com.tajeats.tajeats_backend.repository.RestaurantRepository;
 import com.tajeats.tajeats_backend.service.ImageStorageService;
+import com.tajeats.tajeats_backend.service.ImageVariantService;
+import com.tajeats.tajeats_backend.service.RestaurantChangedEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -20,24 +24,38 @@ public class RestaurantImageController {
 
     private final RestaurantRepository restaurantRepository;
     private final ImageStorageService imageStorageService;
+    private final ImageVariantService imageVariantService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @PostMapping("/{id}/image")
+    @PreAuthorize("hasAnyRole('ADMIN', 'RESTAURANT_OWNER') and @ownership.isOwner(authentication, #id)")
     public ResponseEntity<Map<String, String>> uploadRestaurantImage(
             @PathVariable Long id,
             @RequestParam("file") MultipartFile file) {
 
-        Restaurant restaurant = restaurantRepository.findById(id)
+        Restaurant restaurant = restaurantRepository.findByIdAndDeletedAtIsNull(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found"));
 
-        // Delete old image if exists
-        if (restaurant.getImage() != null) {
-            imageStorageService.delete(restaurant.getImage());
-        }
+        String previous = restaurant.getImage();
 
-        // Store new image
+        // Store new image before releasing the old one, so a failed upload keeps it
         String imageUrl = imageStorageService.store(file, "restaurants");
         restaurant.setImage(imageUrl);
-        restaurantRepository.save(restaurant);
+        restaurant.setImageSrcset(null);
+        restaurant.setImageWebpSrcset(null);
+        try {
+            restaurantRepository.save(restaurant);
+        } catch (RuntimeException e) {
+            // Nothing points at the new file; drop the reference store() took
+            imageStorageService.delete(imageUrl);
+            throw e;
+        }
+        // Release the old file; it is deleted once nothing else uses the same content
+        if (previous != null) {
+            imageStorageService.delete(previous);
+        }
+        eventPublisher.publishEvent(new RestaurantChangedEvent(id));
+        imageVariantService.generateForRestaurant(id, imageUrl);
 
         Map<String, String> response = new HashMap<>();
         response.put("imageUrl", imageUrl);
@@ -45,22 +63,31 @@ public class RestaurantImageController {
     }
 
     @PostMapping("/{id}/logo")
+    @PreAuthorize("hasAnyRole('ADMIN', 'RESTAURANT_OWNER') and @ownership.isOwner(authentication, #id)")
     public ResponseEntity<Map<String, String>> uploadRestaurantLogo(
             @PathVariable Long id,
             @RequestParam("file") MultipartFile file) {
 
-        Restaurant restaurant = restaurantRepository.findById(id)
+        Restaurant restaurant = restaurantRepository.findByIdAndDeletedAtIsNull(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found"));
 
-        // Delete old logo if exists
-        if (restaurant.getLogo() != null) {
-            imageStorageService.delete(restaurant.getLogo());
-        }
+        String previous = restaurant.getLogo();
 
-        // Store new logo
+        // Store new logo before releasing the old one, so a failed upload keeps it
         String logoUrl = imageStorageService.store(file, "restaurants/logos");
         restaurant.setLogo(logoUrl);
-        restaurantRepository.save(restaurant);
+        try {
+            restaurantRepository.save(restaurant);
+        } catch (RuntimeException e) {
+            // Nothing points at the new file; drop the reference store() took
+            imageStorageService.delete(logoUrl);
+            throw e;
+        }
+        // Release the old file; it is deleted once nothing else uses the same content
+        if (previous != null) {
+            imageStorageService.delete(previous);
+        }
+        eventPublisher.publishEvent(new RestaurantChangedEvent(id));
 
         Map<String, String> response = new HashMap<>();
         response.put("logoUrl", logoUrl);
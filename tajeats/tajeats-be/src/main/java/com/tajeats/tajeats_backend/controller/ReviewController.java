@@ -1,10 +1,13 @@
 package com.tajeats.tajeats_backend.controller;
 
 import com.tajeats.tajeats_backend.dto.ReviewDTO;
+import com.tajeats.tajeats_backend.dto.ReviewPageDTO;
 import com.tajeats.tajeats_backend.service.ReviewService;
+import com.tajeats.tajeats_backend.service.ReviewWriteBehindService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @RestController
@@ -12,28 +15,74 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class ReviewController {
 
+    private static final String SESSION_HEADER = "X-Session-ID";
+
     private final ReviewService reviewService;
+    private final ReviewWriteBehindService reviewWriteBehindService;
 
-    public ReviewController(ReviewService reviewService) {
+    public ReviewController(ReviewService reviewService, ReviewWriteBehindService reviewWriteBehindService) {
         this.reviewService = reviewService;
+        this.reviewWriteBehindService = reviewWriteBehindService;
     }
 
     @GetMapping
-    public List<ReviewDTO> getReviews(@RequestParam(required = false) Long restaurantId) {
+    public List<?> getReviews(
+            @RequestParam(required = false) Long restaurantId,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = SESSION_HEADER, required = false) String sessionId
+    ) {
+        if (fields != null) {
+            return restaurantId != null
+                    ? reviewService.getByRestaurant(restaurantId, fields)
+                    : reviewService.getAll(fields);
+        }
         if (restaurantId != null) {
-            return reviewService.getByRestaurant(restaurantId);
+            List<ReviewDTO> reviews = new ArrayList<>(reviewWriteBehindService.pendingFor(sessionId, restaurantId));
+            reviews.addAll(reviewService.getByRestaurant(restaurantId));
+            return reviews;
         }
         return reviewService.getAll();
     }
 
+    @GetMapping("/restaurant/{restaurantId}")
+    public ResponseEntity<ReviewPageDTO> getRestaurantReviewPage(
+            @PathVariable Long restaurantId,
+            @RequestParam(defaultValue = "date") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestHeader(value = SESSION_HEADER, required = false) String sessionId
+    ) {
+        ReviewPageDTO page = reviewService.getPageByRestaurant(restaurantId, sort, cursor, size);
+        if (cursor == null) {
+            // The submitter sees their own reviews even before write-behind has stored them
+            List<ReviewDTO> pending = reviewWriteBehindService.pendingFor(sessionId, restaurantId);
+            if (!pending.isEmpty()) {
+                List<ReviewDTO> items = new ArrayList<>(pending);
+                items.addAll(page.getItems());
+                page.setItems(items);
+            }
+        }
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<ReviewDTO> getReview(@PathVariable Long id) {
+    public ResponseEntity<?> getReview(@PathVariable Long id, @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(reviewService.getById(id, fields));
+        }
         return  ResponseEntity.ok(reviewService.getById(id));
     }
 
     @PostMapping
-    public ResponseEntity<ReviewDTO> createReview(@RequestBody ReviewDTO dto) {
-        return ResponseEntity.ok(reviewService.create(dto));
+    public ResponseEntity<ReviewDTO> createReview(
+            @RequestBody ReviewDTO dto,
+            @RequestHeader(value = SESSION_HEADER, required = false) String sessionId
+    ) {
+        ReviewWriteBehindService.Submission submission = reviewWriteBehindService.submit(dto, sessionId);
+        // 202 when the review was queued for a batched write rather than stored already
+        return submission.queued()
+                ? ResponseEntity.accepted().body(submission.review())
+                : ResponseEntity.ok(submission.review());
     }
 
     @PutMapping("/{id}")
@@ -5,7 +5,6 @@ import lombok.Data;
 @Data
 public class CartItemDTO {
     private Long id;
-    private Long orderId;
     private Long dishId;
     private Integer quantity;
     private String sessionId;
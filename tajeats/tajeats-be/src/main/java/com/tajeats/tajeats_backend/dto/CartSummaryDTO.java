@@ -0,0 +1,36 @@
+package com.tajeats.tajeats_backend.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+public class CartSummaryDTO {
+    private String sessionId;
+    private Long restaurantId;
+    private String restaurantName;
+    private String deliveryType; // DELIVERY or PICKUP
+
+    private List<Line> items;
+    private int itemCount;
+
+    private BigDecimal subtotal;
+    private BigDecimal deliveryFee;
+    private BigDecimal total;
+    private BigDecimal minOrder;
+
+    private boolean restaurantOpen;
+    private boolean checkoutAllowed;
+    private List<String> problems;
+
+    @Data
+    public static class Line {
+        private Long id;
+        private Long dishId;
+        private String dishName;
+        private BigDecimal unitPrice;
+        private Integer quantity;
+        private BigDecimal lineTotal;
+    }
+}
@@ -6,12 +6,15 @@ import java.math.BigDecimal;
 @Data
 public class DishDTO {
     private Long id;
+    private Long version;
     private Long restaurantId;
 
     private String name;
     private String description;
     private BigDecimal price;
     private String image;
+    private String imageSrcset;
+    private String imageWebpSrcset;
     private String category;
     private Boolean isAvailable;
     private Boolean isPopular;
@@ -0,0 +1,19 @@
+package com.tajeats.tajeats_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedPageDTO {
+    private List<RestaurantDTO> items;
+    private int page;
+    private int size;
+    private int totalItems;
+    private LocalDateTime generatedAt; // When the ranking snapshot was computed
+}
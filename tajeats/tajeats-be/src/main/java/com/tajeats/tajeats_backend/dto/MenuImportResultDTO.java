@@ -0,0 +1,25 @@
+package com.tajeats.tajeats_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuImportResultDTO {
+    private Long restaurantId;
+    private int imported;
+    private int rejected;
+    private List<RowError> errors;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private int row; // 1-based data row, header excluded
+        private String message;
+    }
+}
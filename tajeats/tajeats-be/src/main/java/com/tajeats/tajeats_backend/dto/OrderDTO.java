@@ -23,5 +23,5 @@ public class OrderDTO {
     private LocalDateTime createdAt;
     private LocalDateTime estimatedDelivery;
 
-    private List<CartItemDTO> items;
+    private List<OrderItemDTO> items;
 }
@@ -0,0 +1,14 @@
+package com.tajeats.tajeats_backend.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class OrderItemDTO {
+    private Long id;
+    private Long dishId;
+    private String dishName;
+    private BigDecimal unitPrice;
+    private Integer quantity;
+}
@@ -6,8 +6,11 @@ import java.math.BigDecimal;
 @Data
 public class RestaurantDTO {
     private Long id;
+    private Long version;
     private String name;
     private String image;
+    private String imageSrcset;
+    private String imageWebpSrcset;
     private String logo;
     private String category;
     private Double rating;
@@ -0,0 +1,16 @@
+package com.tajeats.tajeats_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewPageDTO {
+    private List<ReviewDTO> items;
+    private String nextCursor;        // Pass back as ?cursor= for the next page, null on the last page
+    private ReviewSummaryDTO summary; // Only on the first page
+}
@@ -0,0 +1,16 @@
+package com.tajeats.tajeats_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewSummaryDTO {
+    private Double average;
+    private Integer count;
+    private Map<Integer, Integer> histogram; // star value (1-5) -> number of reviews
+}
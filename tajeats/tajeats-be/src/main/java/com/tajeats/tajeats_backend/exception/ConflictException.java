@@ -0,0 +1,7 @@
+package com.tajeats.tajeats_backend.exception;
+
+public class ConflictException extends RuntimeException {
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.tajeats.tajeats_backend.exception;
+
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -4,20 +4,23 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.LocalDateTime;
+
 @Getter
 @Setter
 @Entity
-@Table(name = "cart_items")
+@Table(
+        name = "cart_items",
+        // One line per dish in a session; the constraint's index also serves session lookups
+        uniqueConstraints = @UniqueConstraint(name = "uk_cart_items_session_dish", columnNames = {"session_id", "dish_id"}),
+        indexes = @Index(name = "idx_cart_items_last_touched_at", columnList = "last_touched_at")
+)
 public class CartItem {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
-    @JoinColumn(name = "order_id")
-    private Order order;
-
     @ManyToOne
     @JoinColumn(name = "dish_id")
     private Dish dish;
@@ -25,4 +28,7 @@ public class CartItem {
     private Integer quantity;
     
     private String sessionId;
+
+    // Bumped on every write to the session's cart; drives the abandoned-cart sweeper
+    private LocalDateTime lastTouchedAt;
 }
@@ -3,6 +3,8 @@ package com.tajeats.tajeats_backend.model;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -10,6 +12,7 @@ import java.util.List;
 @Getter
 @Setter
 @Entity
+@DynamicUpdate
 @Table(name = "dishes")
 public class Dish {
 
@@ -17,6 +20,12 @@ public class Dish {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Optimistic lock for concurrent editors (PUT and PATCH)
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @ManyToOne
     @JoinColumn(name = "restaurant_id")
     private Restaurant restaurant;
@@ -30,6 +39,13 @@ public class Dish {
     
     @Column(columnDefinition = "TEXT")
     private String image;
+
+    // Resized renditions of image as srcset strings, filled in by ImageVariantService
+    @Column(columnDefinition = "TEXT")
+    private String imageSrcset;
+
+    @Column(columnDefinition = "TEXT")
+    private String imageWebpSrcset;
     
     private String category;
     private Boolean isAvailable;
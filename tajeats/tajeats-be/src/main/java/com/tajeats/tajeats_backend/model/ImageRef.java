@@ -0,0 +1,29 @@
+package com.tajeats.tajeats_backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * How many entities point at a content-addressed stored image. The file and its
+ * variants are deleted when the count drops to zero. Images stored before
+ * content addressing have no row and are deleted on first release.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "image_refs")
+public class ImageRef {
+
+    // Path under the storage root, e.g. dishes/<sha256>.jpg
+    @Id
+    @Column(length = 255)
+    private String path;
+
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount;
+}
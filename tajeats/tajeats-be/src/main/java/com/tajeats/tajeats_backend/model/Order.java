@@ -3,9 +3,11 @@ package com.tajeats.tajeats_backend.model;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 
 import java.math.BigDecimal;
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.List;
 
 @Getter
@@ -32,6 +34,8 @@ public class Order {
     private Timestamp createdAt;
     private Timestamp estimatedDelivery;
 
-    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL)
-    private List<CartItem> cartItems;
+    // Batched so listing orders loads lines for many orders per query
+    @BatchSize(size = 50)
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    private List<OrderItem> orderItems = new ArrayList<>();
 }
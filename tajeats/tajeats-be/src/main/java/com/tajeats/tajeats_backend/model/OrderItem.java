@@ -0,0 +1,38 @@
+package com.tajeats.tajeats_backend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * A line of a placed order. Dish name and price are copied at checkout and the dish id is
+ * kept as a plain column, so order history never joins or depends on live menu rows.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "order_items", indexes = @Index(name = "idx_order_items_order_id", columnList = "order_id"))
+public class OrderItem {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "order_id", nullable = false)
+    private Order order;
+
+    @Column(nullable = false)
+    private Long dishId;
+
+    @Column(nullable = false)
+    private String dishName;
+
+    @Column(nullable = false)
+    private BigDecimal unitPrice;
+
+    @Column(nullable = false)
+    private Integer quantity;
+}
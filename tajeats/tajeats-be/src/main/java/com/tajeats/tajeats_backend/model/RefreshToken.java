@@ -0,0 +1,56 @@
+package com.tajeats.tajeats_backend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One issued refresh token, stored only as a SHA-256 hash. Each refresh rotates
+ * the token within its family; presenting a token that was already rotated
+ * means it leaked, and the whole family is revoked.
+ */
+@Getter
+@Setter
+@Entity
+@Table(
+        name = "refresh_tokens",
+        uniqueConstraints = @UniqueConstraint(name = "uk_refresh_tokens_token_hash", columnNames = "token_hash"),
+        indexes = {
+                @Index(name = "idx_refresh_tokens_family_id", columnList = "family_id"),
+                @Index(name = "idx_refresh_tokens_expires_at", columnList = "expires_at")
+        }
+)
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "token_hash", nullable = false, length = 64)
+    private String tokenHash;
+
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId;
+
+    // jti of the access token issued alongside, revoked with the family on reuse
+    @Column(name = "access_jti", length = 36)
+    private String accessJti;
+
+    @Column(name = "access_expires_at")
+    private LocalDateTime accessExpiresAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Set when rotated or revoked; a used token is never valid again
+    @Column(name = "revoked_at")
+    private LocalDateTime revokedAt;
+}
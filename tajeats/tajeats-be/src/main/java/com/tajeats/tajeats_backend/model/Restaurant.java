@@ -3,13 +3,17 @@ package com.tajeats.tajeats_backend.model;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Getter
 @Setter
 @Entity
+@DynamicUpdate
 @Table(name = "restaurants")
 public class Restaurant {
 
@@ -17,10 +21,23 @@ public class Restaurant {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Optimistic lock for concurrent editors (PUT and PATCH)
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     private String name;
     
     @Column(columnDefinition = "TEXT")
     private String image;
+
+    // Resized renditions of image as srcset strings, filled in by ImageVariantService
+    @Column(columnDefinition = "TEXT")
+    private String imageSrcset;
+
+    @Column(columnDefinition = "TEXT")
+    private String imageWebpSrcset;
     
     @Column(columnDefinition = "TEXT")
     private String logo;
@@ -28,6 +45,33 @@ public class Restaurant {
     private String category;
     private Double rating;
     private Integer reviewCount;
+
+    // Running review aggregates, kept in step by RestaurantRepository.applyRatingDelta;
+    // rating is always ratingSum / reviewCount
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long ratingSum = 0L;
+
+    // Reviews per star value
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Integer stars1 = 0;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Integer stars2 = 0;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Integer stars3 = 0;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Integer stars4 = 0;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Integer stars5 = 0;
     private String deliveryTime;
     private BigDecimal deliveryFee;
     private BigDecimal minOrder;
@@ -61,6 +105,9 @@ public class Restaurant {
     private String openingSaturday;
     private String openingSunday;
 
+    // Soft delete: deleted restaurants are hidden but historical orders keep their reference
+    private LocalDateTime deletedAt;
+
     @OneToMany(mappedBy = "restaurant", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Dish> dishes;
 
@@ -9,14 +9,18 @@ import java.time.LocalDate;
 @Getter
 @Setter
 @Entity
-@Table(name = "reviews")
+@Table(name = "reviews", indexes = {
+        // Keyset pagination of a restaurant's reviews, newest first or best first
+        @Index(name = "idx_reviews_restaurant_date", columnList = "restaurant_id, date, id"),
+        @Index(name = "idx_reviews_restaurant_rating", columnList = "restaurant_id, rating, date, id")
+})
 public class Review {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "restaurant_id")
     private Restaurant restaurant;
 
@@ -25,4 +29,8 @@ public class Review {
     private Integer rating;
     private String comment;
     private LocalDate date;
+
+    // Set for reviews written behind; makes journal replays idempotent
+    @Column(unique = true, updatable = false)
+    private String submissionId;
 }
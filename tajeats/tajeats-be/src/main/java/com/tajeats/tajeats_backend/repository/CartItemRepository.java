@@ -2,12 +2,62 @@ package com.tajeats.tajeats_backend.repository;
 
 import com.tajeats.tajeats_backend.model.CartItem;
 
+import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
-    List<CartItem> findByOrderId(Long orderId);
+
+    interface CartLineRow {
+        Long getId();
+        Long getDishId();
+        Integer getQuantity();
+    }
+
     List<CartItem> findBySessionId(String sessionId);
+    Optional<CartItem> findByIdAndSessionId(Long id, String sessionId);
     void deleteBySessionId(String sessionId);
+    long deleteByIdAndSessionId(Long id, String sessionId);
+
+    // Adds to the session's line for the dish and keeps the session's other lines alive, in one
+    // statement that is safe under concurrent adds; the sweeper expires lines individually
+    @Transactional
+    @Query(value = "WITH line AS ("
+            + "INSERT INTO cart_items (session_id, dish_id, quantity, last_touched_at) "
+            + "VALUES (:sessionId, :dishId, :quantity, :now) "
+            + "ON CONFLICT (session_id, dish_id) DO UPDATE "
+            + "SET quantity = cart_items.quantity + EXCLUDED.quantity, last_touched_at = EXCLUDED.last_touched_at "
+            + "RETURNING id, dish_id, quantity), "
+            + "siblings AS (UPDATE cart_items SET last_touched_at = :now "
+            + "WHERE session_id = :sessionId AND dish_id <> :dishId) "
+            + "SELECT id, dish_id AS \"dishId\", quantity FROM line", nativeQuery = true)
+    CartLineRow upsertQuantity(
+            @Param("sessionId") String sessionId,
+            @Param("dishId") Long dishId,
+            @Param("quantity") int quantity,
+            @Param("now") LocalDateTime now
+    );
+
+    // Removes the whole session cart and hands back its lines in one statement
+    @Query(value = "DELETE FROM cart_items WHERE session_id = :sessionId "
+            + "RETURNING id, dish_id AS \"dishId\", quantity", nativeQuery = true)
+    List<CartLineRow> takeBySessionId(@Param("sessionId") String sessionId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE CartItem ci SET ci.lastTouchedAt = :now WHERE ci.sessionId = :sessionId")
+    int touchSession(@Param("sessionId") String sessionId, @Param("now") LocalDateTime now);
+
+    // Deletes at most :limit session cart lines for a restaurant's dishes
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM cart_items WHERE id IN (SELECT ci.id FROM cart_items ci JOIN dishes d ON d.id = ci.dish_id "
+            + "WHERE d.restaurant_id = :restaurantId LIMIT :limit)", nativeQuery = true)
+    int deleteSessionItemsChunkByRestaurantId(@Param("restaurantId") Long restaurantId, @Param("limit") int limit);
 }
@@ -2,14 +2,58 @@ package com.tajeats.tajeats_backend.repository;
 
 import com.tajeats.tajeats_backend.model.Dish;
 
+import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface DishRepository extends JpaRepository<Dish, Long> {
-    List<Dish> findByRestaurantId(Long restaurantId);
+    // Menus of deleted restaurants are no longer served
+    List<Dish> findByRestaurantIdAndRestaurantDeletedAtIsNull(Long restaurantId);
+    List<Dish> findByRestaurantDeletedAtIsNull();
     List<Dish> findByIsAvailableTrue();
     List<Dish> findByIsPopularTrue();
     List<Dish> findByCategory(String category);
     List<Dish> findByRestaurantIdAndIsAvailableTrue(Long restaurantId);
-}
\ No newline at end of file
+
+    @Query("SELECT d.restaurant.id FROM Dish d WHERE d.id = :id")
+    Optional<Long> findRestaurantIdById(@Param("id") Long id);
+
+    @Query("SELECT d.id, d.isAvailable FROM Dish d WHERE d.restaurant.id = :restaurantId ORDER BY d.id")
+    List<Object[]> findAvailabilityByRestaurantId(@Param("restaurantId") Long restaurantId);
+
+    // Single statement toggle; returns the owning restaurant so callers need no extra lookup
+    @Transactional
+    @Query(value = "UPDATE dishes SET is_available = :available, version = version + 1 WHERE id = :id RETURNING restaurant_id", nativeQuery = true)
+    Optional<Long> updateAvailability(@Param("id") Long id, @Param("available") boolean available);
+
+    // Flags exactly the given dishes as popular, only writing rows whose flag changes. Derived data,
+    // so the version is left alone and owners' If-Match edits don't conflict with the recompute
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE dishes SET is_popular = (id IN (:dishIds)) "
+            + "WHERE restaurant_id = :restaurantId AND is_popular IS DISTINCT FROM (id IN (:dishIds))", nativeQuery = true)
+    int updatePopularity(@Param("restaurantId") Long restaurantId, @Param("dishIds") List<Long> dishIds);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Dish d SET d.isAvailable = false, d.version = d.version + 1 WHERE d.restaurant.id = :restaurantId")
+    int disableByRestaurantId(@Param("restaurantId") Long restaurantId);
+
+    // Only lands if the image is still the one the variants were made from
+    @Modifying
+    @Transactional
+    @Query("UPDATE Dish d SET d.imageSrcset = :srcset, d.imageWebpSrcset = :webpSrcset "
+            + "WHERE d.id = :id AND d.image = :image")
+    int updateImageSrcset(@Param("id") Long id, @Param("image") String image,
+                          @Param("srcset") String srcset, @Param("webpSrcset") String webpSrcset);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Dish d SET d.imageSrcset = NULL, d.imageWebpSrcset = NULL WHERE d.id = :id")
+    int clearImageSrcset(@Param("id") Long id);
+}
@@ -0,0 +1,33 @@
+package com.tajeats.tajeats_backend.repository;
+
+import com.tajeats.tajeats_backend.model.ImageRef;
+
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface ImageRefRepository extends JpaRepository<ImageRef, String> {
+
+    // Counts one more user of the image, creating the row on first upload
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO image_refs (path, ref_count) VALUES (:path, 1) "
+            + "ON CONFLICT (path) DO UPDATE SET ref_count = image_refs.ref_count + 1", nativeQuery = true)
+    int acquire(@Param("path") String path);
+
+    // Drops one user and returns what is left; empty when the image was never counted
+    @Transactional
+    @Query(value = "UPDATE image_refs SET ref_count = ref_count - 1 WHERE path = :path "
+            + "RETURNING ref_count", nativeQuery = true)
+    Optional<Integer> release(@Param("path") String path);
+
+    // Removes the row only if nobody re-acquired it meanwhile; the row lock is held until commit
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM image_refs WHERE path = :path AND ref_count <= 0", nativeQuery = true)
+    int deleteIfUnused(@Param("path") String path);
+}
@@ -0,0 +1,105 @@
+package com.tajeats.tajeats_backend.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tajeats.tajeats_backend.exception.ValidationException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies JSON Merge Patch documents as a single version-checked UPDATE that only
+ * assigns the columns present in the patch. Entities are never loaded, and
+ * soft-deleted rows (a non-null deletedAt) are never matched.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MergePatchRepository {
+
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param patch Patch document (DTO property -> new value, null clears the column)
+     * @param whitelist Patchable DTO properties mapped to entity attribute names
+     * @param required DTO properties that may be changed but not cleared
+     * @return Number of rows updated: 0 when the id does not exist, is soft-deleted or the version is stale
+     * @throws ValidationException for unknown fields, values of the wrong type or nulls for required fields
+     */
+    public <T> int patch(
+            Class<T> entityType,
+            Long id,
+            long expectedVersion,
+            Map<String, Object> patch,
+            Map<String, String> whitelist,
+            Set<String> required
+    ) {
+        if (patch.isEmpty()) {
+            throw new ValidationException("Patch document contains no fields");
+        }
+
+        EntityType<T> model = entityManager.getMetamodel().entity(entityType);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<T> update = cb.createCriteriaUpdate(entityType);
+        Root<T> root = update.from(entityType);
+
+        patch.forEach((property, value) -> {
+            String attributeName = whitelist.get(property);
+            if (attributeName == null) {
+                throw new ValidationException(
+                        "Field '" + property + "' cannot be patched. Allowed fields: "
+                                + String.join(", ", whitelist.keySet())
+                );
+            }
+            if (value == null && required.contains(property)) {
+                throw new ValidationException("Field '" + property + "' cannot be null");
+            }
+            update.set(attributeName, convert(model.getAttribute(attributeName), property, value));
+        });
+
+        Path<Long> version = root.get("version");
+        update.set(version, cb.sum(version, 1L));
+        List<Predicate> where = new ArrayList<>(List.of(
+                cb.equal(root.get("id"), id),
+                cb.equal(version, expectedVersion)
+        ));
+        if (isSoftDeletable(model)) {
+            where.add(cb.isNull(root.get("deletedAt")));
+        }
+        update.where(where.toArray(Predicate[]::new));
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    // ---------- Helpers ----------
+    private static boolean isSoftDeletable(EntityType<?> model) {
+        return model.getAttributes().stream().anyMatch(attribute -> attribute.getName().equals("deletedAt"));
+    }
+
+    private Object convert(Attribute<?, ?> attribute, String property, Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            if (attribute.isAssociation()) {
+                // Associations are patched by id, e.g. "restaurantId": 7, without loading the target
+                Long targetId = objectMapper.convertValue(value, Long.class);
+                return entityManager.getReference(attribute.getJavaType(), targetId);
+            }
+            return objectMapper.convertValue(value, attribute.getJavaType());
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid value for field '" + property + "'");
+        }
+    }
+}
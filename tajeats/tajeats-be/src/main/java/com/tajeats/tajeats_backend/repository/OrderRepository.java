@@ -6,13 +6,18 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.sql.Timestamp;
 import java.util.List;
+import java.util.Optional;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByRestaurantId(Long restaurantId);
     List<Order> findByStatus(String status);
     List<Order> findByCustomerNameContaining(String customerName);
     List<Order> findByRestaurantIdOrderByCreatedAtDesc(Long restaurantId);
+
+    @Query("SELECT o.restaurant.id FROM Order o WHERE o.id = :id")
+    Optional<Long> findRestaurantIdById(@Param("id") Long id);
     
     @Query("SELECT o FROM Order o WHERE o.status IN ('placed', 'approved', 'preparing', 'on-the-way') AND o.restaurant.id = :restaurantId")
     List<Order> findActiveOrdersByRestaurant(@Param("restaurantId") Long restaurantId);
@@ -22,5 +27,7 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     @Query("SELECT o FROM Order o WHERE o.deliveryType = 'DELIVERY' AND o.status IN ('approved', 'on-the-way') AND o.restaurant.id = :restaurantId")
     List<Order> findActiveDeliveryOrdersByRestaurant(@Param("restaurantId") Long restaurantId);
-}
 
+    @Query("SELECT o.restaurant.id, COUNT(o) FROM Order o WHERE o.createdAt >= :since GROUP BY o.restaurant.id")
+    List<Object[]> countOrdersByRestaurantSince(@Param("since") Timestamp since);
+}
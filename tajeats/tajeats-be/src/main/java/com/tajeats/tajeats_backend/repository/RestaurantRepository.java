@@ -2,13 +2,91 @@ package com.tajeats.tajeats_backend.repository;
 
 import com.tajeats.tajeats_backend.model.Restaurant;
 
+import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
+
+    interface ReviewSummaryView {
+        Double getRating();
+        Integer getReviewCount();
+        Integer getStars1();
+        Integer getStars2();
+        Integer getStars3();
+        Integer getStars4();
+        Integer getStars5();
+    }
+
+    interface DeletedImagesView {
+        String getImage();
+        String getLogo();
+    }
+
     List<Restaurant> findByCategory(String category);
     List<Restaurant> findByIsOpenTrue();
     List<Restaurant> findByNameContainingIgnoreCase(String name);
     List<Restaurant> findByRatingGreaterThanEqual(Double minRating);
+    List<Restaurant> findByDeletedAtIsNull();
+    Optional<Restaurant> findByIdAndDeletedAtIsNull(Long id);
+
+    @Query("SELECT r.rating AS rating, r.reviewCount AS reviewCount, r.stars1 AS stars1, r.stars2 AS stars2, "
+            + "r.stars3 AS stars3, r.stars4 AS stars4, r.stars5 AS stars5 "
+            + "FROM Restaurant r WHERE r.id = :id AND r.deletedAt IS NULL")
+    Optional<ReviewSummaryView> findReviewSummaryById(@Param("id") Long id);
+
+    /**
+     * Shift the review aggregates by the given deltas and derive the rating from the new
+     * sum and count, all in one row update. Does not bump the version, so owner edits
+     * never conflict with incoming reviews.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Restaurant r SET "
+            + "r.reviewCount = COALESCE(r.reviewCount, 0) + :countDelta, "
+            + "r.ratingSum = r.ratingSum + :sumDelta, "
+            + "r.stars1 = r.stars1 + :d1, r.stars2 = r.stars2 + :d2, r.stars3 = r.stars3 + :d3, "
+            + "r.stars4 = r.stars4 + :d4, r.stars5 = r.stars5 + :d5, "
+            + "r.rating = CASE WHEN COALESCE(r.reviewCount, 0) + :countDelta > 0 "
+            + "THEN CAST(r.ratingSum + :sumDelta AS double) / (COALESCE(r.reviewCount, 0) + :countDelta) "
+            + "ELSE 0.0 END "
+            + "WHERE r.id = :id")
+    int applyRatingDelta(
+            @Param("id") Long id,
+            @Param("countDelta") int countDelta,
+            @Param("sumDelta") long sumDelta,
+            @Param("d1") int d1,
+            @Param("d2") int d2,
+            @Param("d3") int d3,
+            @Param("d4") int d4,
+            @Param("d5") int d5
+    );
+
+    // Clears the photos and returns the ones it cleared, so the caller releases exactly those;
+    // the locking subselect makes a concurrent upload finish first. Empty if already deleted.
+    @Transactional
+    @Query(value = "UPDATE restaurants r SET deleted_at = :deletedAt, is_open = false, version = r.version + 1, "
+            + "image = NULL, image_srcset = NULL, image_webp_srcset = NULL, logo = NULL "
+            + "FROM (SELECT id, image, logo FROM restaurants WHERE id = :id AND deleted_at IS NULL FOR UPDATE) old "
+            + "WHERE r.id = old.id RETURNING old.image AS image, old.logo AS logo", nativeQuery = true)
+    Optional<DeletedImagesView> softDelete(@Param("id") Long id, @Param("deletedAt") LocalDateTime deletedAt);
+
+    // Only lands if the image is still the one the variants were made from
+    @Modifying
+    @Transactional
+    @Query("UPDATE Restaurant r SET r.imageSrcset = :srcset, r.imageWebpSrcset = :webpSrcset "
+            + "WHERE r.id = :id AND r.image = :image")
+    int updateImageSrcset(@Param("id") Long id, @Param("image") String image,
+                          @Param("srcset") String srcset, @Param("webpSrcset") String webpSrcset);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Restaurant r SET r.imageSrcset = NULL, r.imageWebpSrcset = NULL WHERE r.id = :id")
+    int clearImageSrcset(@Param("id") Long id);
 }
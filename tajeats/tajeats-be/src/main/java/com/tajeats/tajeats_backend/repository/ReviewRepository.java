@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface ReviewRepository extends JpaRepository<Review, Long> {
@@ -13,7 +14,33 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     List<Review> findByRestaurantIdOrderByDateDesc(Long restaurantId);
     List<Review> findByRatingGreaterThanEqual(Integer minRating);
     Long countByRestaurantId(Long restaurantId);
-    
-    @Query("SELECT AVG(r.rating) FROM Review r WHERE r.restaurant.id = :restaurantId")
-    Double findAverageRatingByRestaurantId(@Param("restaurantId") Long restaurantId);
+
+    // ---------- Keyset pages (date and id are never null, see ReviewService.create) ----------
+    @Query(value = "SELECT * FROM reviews WHERE restaurant_id = :restaurantId "
+            + "ORDER BY date DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<Review> findFirstPageByDate(@Param("restaurantId") Long restaurantId, @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM reviews WHERE restaurant_id = :restaurantId AND (date, id) < (:date, :id) "
+            + "ORDER BY date DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<Review> findPageByDateAfter(
+            @Param("restaurantId") Long restaurantId,
+            @Param("date") LocalDate date,
+            @Param("id") Long id,
+            @Param("limit") int limit
+    );
+
+    @Query(value = "SELECT * FROM reviews WHERE restaurant_id = :restaurantId AND rating IS NOT NULL "
+            + "ORDER BY rating DESC, date DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<Review> findFirstPageByRating(@Param("restaurantId") Long restaurantId, @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM reviews WHERE restaurant_id = :restaurantId "
+            + "AND (rating, date, id) < (:rating, :date, :id) "
+            + "ORDER BY rating DESC, date DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<Review> findPageByRatingAfter(
+            @Param("restaurantId") Long restaurantId,
+            @Param("rating") int rating,
+            @Param("date") LocalDate date,
+            @Param("id") Long id,
+            @Param("limit") int limit
+    );
 }
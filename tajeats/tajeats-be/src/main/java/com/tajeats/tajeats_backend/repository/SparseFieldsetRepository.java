@@ -0,0 +1,92 @@
+package com.tajeats.tajeats_backend.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs tuple queries that only select the columns a client asked for
+ * via {@code ?fields=}, returning one ordered map per row.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SparseFieldsetRepository {
+
+    private final EntityManager entityManager;
+
+    public <T> List<Map<String, Object>> findFields(
+            Class<T> entityType,
+            Map<String, String> fields,
+            Specification<T> filter,
+            String orderBy,
+            boolean descending
+    ) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(entityType);
+
+        List<Selection<?>> selections = new ArrayList<>();
+        fields.forEach((property, path) -> selections.add(resolve(root, path).alias(property)));
+        query.multiselect(selections);
+
+        if (filter != null) {
+            query.where(filter.toPredicate(root, query, cb));
+        }
+        if (orderBy != null) {
+            Path<?> orderPath = resolve(root, orderBy);
+            query.orderBy(descending ? cb.desc(orderPath) : cb.asc(orderPath));
+        }
+
+        return entityManager.createQuery(query).getResultList().stream()
+                .map(tuple -> toMap(tuple, fields))
+                .toList();
+    }
+
+    public <T> Map<String, Object> findFieldsById(Class<T> entityType, Map<String, String> fields, Long id) {
+        List<Map<String, Object>> rows = findFields(
+                entityType, fields, (root, query, cb) -> cb.equal(root.get("id"), id), null, false
+        );
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    // ---------- Helpers ----------
+    private Path<?> resolve(Root<?> root, String path) {
+        Path<?> current = root;
+        for (String segment : path.split("\\.")) {
+            current = current.get(segment);
+        }
+        return current;
+    }
+
+    private Map<String, Object> toMap(Tuple tuple, Map<String, String> fields) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (String property : fields.keySet()) {
+            row.put(property, toJsonValue(tuple.get(property)));
+        }
+        return row;
+    }
+
+    // Match the types the regular DTO mappers expose
+    private Object toJsonValue(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        if (value instanceof Enum<?> constant) {
+            return constant.name();
+        }
+        return value;
+    }
+}
@@ -0,0 +1,81 @@
+package com.tajeats.tajeats_backend.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token buckets in a concurrent map, the default {@link RateLimitBackend}.
+ * Each bucket is a single AtomicLong holding the time at which it would be full
+ * again (GCRA), so an allowed request costs one map lookup and one CAS.
+ *
+ * The map is bounded without ever scanning on the request path. Once it holds
+ * {@code max-buckets} keys, new keys share one overflow bucket per limit until
+ * the scheduled sweep makes room; existing clients keep their own buckets, so a
+ * flood of fresh keys throttles itself instead of resetting everyone's limit.
+ * The sweep drops refilled buckets (which carry no state) and, if that is not
+ * enough, the ones closest to refilling.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.backend", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRateLimitBackend implements RateLimitBackend {
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    // capacity/period -> bucket shared by keys that arrived while the map was full
+    private final Map<String, AtomicLong> overflow = new ConcurrentHashMap<>();
+
+    @Value("${app.rate-limit.max-buckets:200000}")
+    private int maxBuckets;
+
+    @Override
+    public long tryAcquire(String key, int capacity, long periodNanos) {
+        long interval = periodNanos / capacity;
+        long limit = interval * capacity;
+        AtomicLong fullAt = buckets.get(key);
+        if (fullAt == null) {
+            fullAt = buckets.size() < maxBuckets
+                    ? buckets.computeIfAbsent(key, k -> new AtomicLong(System.nanoTime()))
+                    : overflow.computeIfAbsent(capacity + "/" + periodNanos, k -> new AtomicLong(System.nanoTime()));
+        }
+
+        long now = System.nanoTime();
+        while (true) {
+            long current = fullAt.get();
+            // Each request pushes the full-again time out by one interval
+            long next = (current - now <= 0 ? now : current) + interval;
+            if (next - now > limit) {
+                return next - now - limit;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.evict-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(fullAt -> fullAt.get() - now <= 0);
+        if (buckets.size() < maxBuckets * 9 / 10) {
+            return;
+        }
+        // Still nearly full of busy buckets: drop the ones that refill soonest, down to 90%
+        int excess = buckets.size() - maxBuckets * 9 / 10;
+        log.warn("Rate limiter holding {} active buckets, evicting the {} closest to refilled",
+                buckets.size(), excess);
+        buckets.entrySet().stream()
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().get() - now))
+                .limit(excess)
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(buckets::remove);
+    }
+}
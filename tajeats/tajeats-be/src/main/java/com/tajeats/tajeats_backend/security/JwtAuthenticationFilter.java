@@ -1,5 +1,8 @@
 package com.tajeats.tajeats_backend.security;
 
+import com.tajeats.tajeats_backend.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,7 +10,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -17,34 +20,31 @@ import java.io.IOException;
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
-    
+
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
-    
+    private final StaleTokenRegistry staleTokens;
+    private final TokenRevocationList revocationList;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
-        
+
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String userEmail;
-        
+
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
             return;
         }
-        
-        jwt = authHeader.substring(7);
-        userEmail = jwtUtil.extractUsername(jwt);
-        
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-            
-            if (jwtUtil.validateToken(jwt, userDetails)) {
+
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            JwtPrincipal principal = resolvePrincipal(authHeader.substring(7));
+
+            if (principal != null) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
+                        principal,
                         null,
-                        userDetails.getAuthorities()
+                        principal.authorities()
                 );
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
@@ -52,4 +52,37 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Build the principal from the signed claims; revoked tokens are refused. Only tokens issued without
+     * claims, or before the account changed, cost a users lookup.
+     * Returns null when the request should stay anonymous.
+     */
+    private JwtPrincipal resolvePrincipal(String jwt) {
+        Claims claims;
+        try {
+            claims = jwtUtil.extractAllClaims(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        if (claims.getSubject() == null || revocationList.isRevoked(claims.getId())) {
+            return null;
+        }
+
+        JwtPrincipal principal = jwtUtil.toPrincipal(claims);
+        if (principal != null
+                && claims.getIssuedAt() != null
+                && !staleTokens.isStale(principal.userId(), claims.getIssuedAt().getTime())) {
+            boolean approved = Boolean.TRUE.equals(claims.get(JwtUtil.CLAIM_APPROVED, Boolean.class));
+            boolean needsApproval = principal.role() == User.Role.RESTAURANT_OWNER
+                    || principal.role() == User.Role.RIDER;
+            return approved || !needsApproval ? principal : null;
+        }
+
+        try {
+            return userDetailsService.loadPrincipal(claims.getSubject());
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,29 @@
+package com.tajeats.tajeats_backend.security;
+
+import com.tajeats.tajeats_backend.model.User;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+/**
+ * The authenticated caller as described by the signed token claims.
+ * getName() returns the email, so Authentication.getName() keeps working.
+ */
+public record JwtPrincipal(String email, Long userId, User.Role role, Long restaurantId)
+        implements AuthenticatedPrincipal {
+
+    public static JwtPrincipal of(User user) {
+        return new JwtPrincipal(user.getEmail(), user.getId(), user.getRole(), user.getRestaurantId());
+    }
+
+    public List<GrantedAuthority> authorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -1,27 +1,56 @@
 package com.tajeats.tajeats_backend.security;
 
+import com.tajeats.tajeats_backend.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
+
+    // Claims carried so requests authenticate without a users lookup
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_RESTAURANT_ID = "rid";
+    public static final String CLAIM_APPROVED = "approved";
     
     @Value("${jwt.secret}")
     private String secret;
     
     @Value("${jwt.expiration}")
     private Long expiration;
+
+    // Recently verified tokens, keyed by SHA-256 digest so raw tokens aren't retained
+    @Value("${jwt.verified-cache-size:10000}")
+    private int verifiedCacheSize;
+
+    private SecretKey signKey;
+    private JwtParser parser;
+    private final Map<String, Claims> verified = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        signKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        parser = Jwts.parser().verifyWith(signKey).build();
+    }
     
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -36,41 +65,94 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
     
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .verifyWith(getSignKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-    
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Verify the signature and expiry and return the claims. A token seen
+     * recently skips the HMAC check and JSON parsing but is still expiry-checked.
+     */
+    public Claims extractAllClaims(String token) {
+        String digest = digest(token);
+        Claims claims = verified.get(digest);
+        if (claims != null) {
+            if (claims.getExpiration().after(new Date())) {
+                return claims;
+            }
+            verified.remove(digest);
+        }
+
+        claims = parser.parseSignedClaims(token).getPayload();
+        if (claims.getExpiration() != null && verifiedCacheSize > 0) {
+            makeRoom();
+            verified.put(digest, claims);
+        }
+        return claims;
     }
-    
+
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        final Claims claims = extractAllClaims(token);
+        return claims.getSubject().equals(userDetails.getUsername()) && claims.getExpiration().after(new Date());
+    }
+
+    private void makeRoom() {
+        if (verified.size() < verifiedCacheSize) {
+            return;
+        }
+        Date now = new Date();
+        verified.values().removeIf(claims -> !claims.getExpiration().after(now));
+        // Still full of live tokens: start over rather than track recency per hit
+        if (verified.size() >= verifiedCacheSize) {
+            verified.clear();
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
     
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
         return createToken(claims, userDetails.getUsername());
     }
+
+    public String generateToken(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_ROLE, user.getRole().name());
+        claims.put(CLAIM_USER_ID, user.getId());
+        if (user.getRestaurantId() != null) {
+            claims.put(CLAIM_RESTAURANT_ID, user.getRestaurantId());
+        }
+        claims.put(CLAIM_APPROVED, Boolean.TRUE.equals(user.getIsApproved()));
+        return createToken(claims, user.getEmail());
+    }
+
+    /** The principal described by the claims, or null for tokens issued without them. */
+    public JwtPrincipal toPrincipal(Claims claims) {
+        String role = claims.get(CLAIM_ROLE, String.class);
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        if (role == null || userId == null) {
+            return null;
+        }
+        Number restaurantId = claims.get(CLAIM_RESTAURANT_ID, Number.class);
+        return new JwtPrincipal(
+                claims.getSubject(),
+                userId.longValue(),
+                User.Role.valueOf(role),
+                restaurantId == null ? null : restaurantId.longValue()
+        );
+    }
     
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
                 .claims(claims)
+                .id(UUID.randomUUID().toString())
                 .subject(subject)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignKey())
+                .signWith(signKey)
                 .compact();
     }
-    
-    private SecretKey getSignKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
 }
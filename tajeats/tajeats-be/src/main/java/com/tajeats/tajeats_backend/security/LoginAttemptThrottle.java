@@ -0,0 +1,120 @@
+package com.tajeats.tajeats_backend.security;
+
+import com.tajeats.tajeats_backend.exception.TooManyRequestsException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts failed logins per account and per client IP in fixed windows and
+ * refuses further attempts once either limit is reached, before any
+ * password hashing happens. State is per node and bounded: when full, the
+ * oldest windows still under their limit make room, but live lockouts are
+ * never dropped, so spraying new keys cannot lift the lock on an account.
+ */
+@Slf4j
+@Component
+public class LoginAttemptThrottle {
+
+    @Value("${app.auth.login.window-seconds:900}")
+    private long windowSeconds;
+
+    @Value("${app.auth.login.max-failures-per-account:5}")
+    private int maxPerAccount;
+
+    @Value("${app.auth.login.max-failures-per-ip:50}")
+    private int maxPerIp;
+
+    @Value("${app.auth.login.max-tracked-keys:100000}")
+    private int maxTrackedKeys;
+
+    private record Window(long startedAt, AtomicInteger failures) {
+    }
+
+    private final Map<String, Window> accounts = new ConcurrentHashMap<>();
+    private final Map<String, Window> ips = new ConcurrentHashMap<>();
+
+    /** @throws TooManyRequestsException when the account or IP is locked out for the current window */
+    public void check(String email, String clientIp) {
+        long now = System.currentTimeMillis();
+        long retryAfter = Math.max(
+                lockedFor(accounts, accountKey(email), maxPerAccount, now),
+                lockedFor(ips, clientIp, maxPerIp, now)
+        );
+        if (retryAfter > 0) {
+            throw new TooManyRequestsException("Too many failed login attempts, try again later", retryAfter);
+        }
+    }
+
+    public void recordFailure(String email, String clientIp) {
+        long now = System.currentTimeMillis();
+        increment(accounts, accountKey(email), maxPerAccount, now);
+        increment(ips, clientIp, maxPerIp, now);
+    }
+
+    public void recordSuccess(String email) {
+        accounts.remove(accountKey(email));
+    }
+
+    // Seconds until the window resets, or 0 when attempts are still allowed
+    private long lockedFor(Map<String, Window> windows, String key, int limit, long now) {
+        Window window = key == null ? null : windows.get(key);
+        if (window == null || expired(window, now) || window.failures().get() < limit) {
+            return 0;
+        }
+        return Math.max(1, (window.startedAt() + windowSeconds * 1000 - now + 999) / 1000);
+    }
+
+    private void increment(Map<String, Window> windows, String key, int limit, long now) {
+        if (key == null) {
+            return;
+        }
+        if (!windows.containsKey(key) && !makeRoom(windows, limit, now)) {
+            log.warn("Login throttle full of live lockouts, not tracking {}", key);
+            return;
+        }
+        windows.compute(key, (k, window) -> window == null || expired(window, now)
+                ? new Window(now, new AtomicInteger(1))
+                : incremented(window));
+    }
+
+    private static Window incremented(Window window) {
+        window.failures().incrementAndGet();
+        return window;
+    }
+
+    // False when every tracked window is a live lockout and the new key has to go untracked
+    private boolean makeRoom(Map<String, Window> windows, int limit, long now) {
+        if (windows.size() < maxTrackedKeys) {
+            return true;
+        }
+        windows.values().removeIf(window -> expired(window, now));
+        if (windows.size() < maxTrackedKeys) {
+            return true;
+        }
+        // Drop the oldest windows below the limit, down to 90% so the scan is amortized
+        int excess = windows.size() - maxTrackedKeys * 9 / 10;
+        windows.entrySet().stream()
+                .filter(entry -> entry.getValue().failures().get() < limit)
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().startedAt()))
+                .limit(excess)
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(windows::remove);
+        return windows.size() < maxTrackedKeys;
+    }
+
+    private boolean expired(Window window, long now) {
+        return now - window.startedAt() >= windowSeconds * 1000;
+    }
+
+    private static String accountKey(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+}
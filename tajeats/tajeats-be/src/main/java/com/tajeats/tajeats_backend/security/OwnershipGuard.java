@@ -0,0 +1,111 @@
+package com.tajeats.tajeats_backend.security;
+
+import com.tajeats.tajeats_backend.model.User;
+import com.tajeats.tajeats_backend.repository.OrderRepository;
+import com.tajeats.tajeats_backend.service.CatalogCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Restaurant ownership checks for {@code @PreAuthorize}, e.g.
+ * {@code @ownership.canEditDish(authentication, #id)}. Admins pass every check;
+ * owners (and riders, for order status) pass for their own restaurant.
+ *
+ * The caller's restaurant comes from the principal's rid. Relinks mark the user in
+ * {@link StaleTokenRegistry}, so tokens issued before a relink are re-read from the
+ * database by the authentication filter and never carry a stale rid here.
+ * Dish and order lookups go through caches, so a check never queries the users table.
+ */
+@Component("ownership")
+public class OwnershipGuard {
+
+    private final CatalogCache catalogCache;
+    private final OrderRepository orderRepository;
+
+    @Value("${app.ownership.max-cached-orders:50000}")
+    private int maxCachedOrders;
+
+    // Orders never move between restaurants, so entries only leave to bound the map
+    private final Map<Long, Long> orderRestaurants = new ConcurrentHashMap<>();
+
+    public OwnershipGuard(CatalogCache catalogCache, OrderRepository orderRepository) {
+        this.catalogCache = catalogCache;
+        this.orderRepository = orderRepository;
+    }
+
+    // ---------- Expressions ----------
+    public boolean isOwner(Authentication authentication, Long restaurantId) {
+        JwtPrincipal principal = principal(authentication);
+        if (principal == null || restaurantId == null) {
+            return false;
+        }
+        if (principal.role() == User.Role.ADMIN) {
+            return true;
+        }
+        return principal.role() == User.Role.RESTAURANT_OWNER && restaurantId.equals(principal.restaurantId());
+    }
+
+    public boolean canEditDish(Authentication authentication, Long dishId) {
+        if (isAdmin(authentication)) {
+            return true;
+        }
+        return catalogCache.find(dishId)
+                .map(dish -> isOwner(authentication, dish.getRestaurantId()))
+                .orElse(false);
+    }
+
+    /** Owners may also move a dish, but only to another restaurant they own. */
+    public boolean canEditDish(Authentication authentication, Long dishId, Object targetRestaurantId) {
+        return canEditDish(authentication, dishId)
+                && (targetRestaurantId == null || isOwner(authentication, Long.valueOf(targetRestaurantId.toString())));
+    }
+
+    public boolean canManageOrder(Authentication authentication, Long orderId) {
+        if (isAdmin(authentication)) {
+            return true;
+        }
+        Long restaurantId = orderRestaurant(orderId);
+        return restaurantId != null && isOwner(authentication, restaurantId);
+    }
+
+    /** Riders work the delivery leg of their restaurant's orders. */
+    public boolean canUpdateOrderStatus(Authentication authentication, Long orderId) {
+        if (canManageOrder(authentication, orderId)) {
+            return true;
+        }
+        JwtPrincipal principal = principal(authentication);
+        Long restaurantId = principal != null && principal.role() == User.Role.RIDER ? orderRestaurant(orderId) : null;
+        return restaurantId != null && restaurantId.equals(principal.restaurantId());
+    }
+
+    // ---------- Helpers ----------
+    private Long orderRestaurant(Long orderId) {
+        Long cached = orderRestaurants.get(orderId);
+        if (cached != null) {
+            return cached;
+        }
+        Long restaurantId = orderRepository.findRestaurantIdById(orderId).orElse(null);
+        if (restaurantId != null) {
+            if (orderRestaurants.size() >= maxCachedOrders) {
+                orderRestaurants.clear();
+            }
+            orderRestaurants.put(orderId, restaurantId);
+        }
+        return restaurantId;
+    }
+
+    private static boolean isAdmin(Authentication authentication) {
+        JwtPrincipal principal = principal(authentication);
+        return principal != null && principal.role() == User.Role.ADMIN;
+    }
+
+    private static JwtPrincipal principal(Authentication authentication) {
+        return authentication != null && authentication.getPrincipal() instanceof JwtPrincipal principal
+                ? principal
+                : null;
+    }
+}
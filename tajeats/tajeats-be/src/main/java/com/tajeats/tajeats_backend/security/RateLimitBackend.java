@@ -0,0 +1,16 @@
+package com.tajeats.tajeats_backend.security;
+
+/**
+ * Where rate limit buckets live. The in-memory backend limits per node; a shared
+ * implementation (selected with {@code app.rate-limit.backend}) can enforce
+ * limits across the cluster.
+ */
+public interface RateLimitBackend {
+
+    /**
+     * Take one token from the bucket for {@code key}, which holds {@code capacity}
+     * tokens refilled evenly over {@code periodNanos}.
+     * @return 0 when allowed, otherwise nanoseconds until a token is available
+     */
+    long tryAcquire(String key, int capacity, long periodNanos);
+}
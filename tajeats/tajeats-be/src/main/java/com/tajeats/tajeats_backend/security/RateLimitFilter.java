@@ -0,0 +1,150 @@
+package com.tajeats.tajeats_backend.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-route request limits for the endpoints anonymous clients can write to.
+ * Rules come from {@code app.rate-limit.rules}, one per comma-separated entry:
+ * {@code METHOD /path/pattern CAPACITY/SECONDS ip|user}. The first matching rule
+ * applies; {@code user} keys by the authenticated principal and falls back to
+ * the client IP. Requests matching no rule pass straight through.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private record Rule(String method, PathPattern pattern, int capacity, long periodNanos, boolean perUser,
+                        Counter rejected) {
+
+        boolean matches(String requestMethod, PathContainer path) {
+            return (method.equals("*") || method.equals(requestMethod)) && pattern.matches(path);
+        }
+    }
+
+    private final RateLimitBackend backend;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final List<Rule> rules = new ArrayList<>();
+    private final Set<String> methods = new HashSet<>();
+
+    @Value("${app.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.rate-limit.rules:}")
+    private List<String> ruleSpecs;
+
+    public RateLimitFilter(RateLimitBackend backend, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.backend = backend;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void parseRules() {
+        PathPatternParser parser = PathPatternParser.defaultInstance;
+        for (String spec : ruleSpecs) {
+            if (spec.isBlank()) {
+                continue;
+            }
+            String[] parts = spec.trim().split("\\s+");
+            String[] rate = parts.length == 4 ? parts[2].split("/") : new String[0];
+            if (rate.length != 2 || !(parts[3].equals("ip") || parts[3].equals("user"))) {
+                throw new IllegalStateException("Invalid app.rate-limit.rules entry: " + spec);
+            }
+            String method = parts[0].toUpperCase();
+            methods.add(method);
+            rules.add(new Rule(
+                    method,
+                    parser.parse(parts[1]),
+                    Integer.parseInt(rate[0]),
+                    TimeUnit.SECONDS.toNanos(Long.parseLong(rate[1])),
+                    parts[3].equals("user"),
+                    Counter.builder("tajeats.ratelimit.rejected")
+                            .description("Requests refused by the rate limiter")
+                            .tag("rule", method + " " + parts[1])
+                            .register(meterRegistry)
+            ));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Most traffic is reads no rule covers; skip it before touching the path
+        return !enabled || !(methods.contains(request.getMethod()) || methods.contains("*"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        for (int i = 0; i < rules.size(); i++) {
+            Rule rule = rules.get(i);
+            if (!rule.matches(request.getMethod(), path)) {
+                continue;
+            }
+            long waitNanos = backend.tryAcquire(i + "|" + subject(rule, request), rule.capacity(), rule.periodNanos());
+            if (waitNanos > 0) {
+                rule.rejected().increment();
+                reject(request, response, waitNanos);
+                return;
+            }
+            break;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static String subject(Rule rule, HttpServletRequest request) {
+        if (rule.perUser()) {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
+                return "u:" + auth.getName();
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        body.put("error", "Too Many Requests");
+        body.put("message", "Rate limit exceeded, retry in " + retryAfter + "s");
+        body.put("path", request.getRequestURI());
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
@@ -0,0 +1,38 @@
+package com.tajeats.tajeats_backend.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers users whose account changed after tokens were issued to them
+ * (deleted, or linked to another restaurant). Tokens issued before the change
+ * fall back to a database lookup instead of trusting their claims.
+ *
+ * Entries only need to outlive the longest token lifetime, after which every
+ * older token has expired anyway. State is per node.
+ */
+@Component
+public class StaleTokenRegistry {
+
+    @Value("${jwt.expiration}")
+    private long expiration;
+
+    // userId -> epoch millis of the last account change
+    private final Map<Long, Long> changedAt = new ConcurrentHashMap<>();
+
+    public void markChanged(Long userId) {
+        long now = System.currentTimeMillis();
+        changedAt.values().removeIf(at -> at < now - expiration);
+        changedAt.put(userId, now);
+    }
+
+    /** Whether a token issued to the user at issuedAt predates an account change. */
+    public boolean isStale(Long userId, long issuedAt) {
+        Long at = changedAt.get(userId);
+        // iat is truncated to whole seconds, so compare at the same precision
+        return at != null && issuedAt < at - at % 1000 + 1000;
+    }
+}
@@ -0,0 +1,85 @@
+package com.tajeats.tajeats_backend.security;
+
+import com.tajeats.tajeats_backend.model.RevokedToken;
+import com.tajeats.tajeats_backend.repository.RevokedTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked access token ids held in memory so the per-request check is a hash
+ * lookup. The revoked_tokens table is the shared source; every node pulls new
+ * rows on a short interval, so a revocation made elsewhere applies within one
+ * sync. Entries drop out once the token would have expired anyway.
+ */
+@Slf4j
+@Component
+public class TokenRevocationList {
+
+    // Re-read a little behind the last row seen, in case node clocks disagree
+    private static final long SYNC_OVERLAP_SECONDS = 60;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    // jti -> expiry in epoch millis
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile LocalDateTime syncedUpTo = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepository) {
+        this.revokedTokenRepository = revokedTokenRepository;
+    }
+
+    public boolean isRevoked(String jti) {
+        return jti != null && revoked.containsKey(jti);
+    }
+
+    public void revoke(String jti, LocalDateTime expiresAt) {
+        revokeAll(Map.of(jti, expiresAt));
+    }
+
+    /** Record revocations locally at once and in the table for the other nodes. */
+    public void revokeAll(Map<String, LocalDateTime> expiryByJti) {
+        if (expiryByJti.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<RevokedToken> rows = expiryByJti.entrySet().stream()
+                .map(e -> new RevokedToken(e.getKey(), e.getValue(), now))
+                .toList();
+        remember(rows);
+        revokedTokenRepository.saveAll(rows);
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.revocation.sync-interval-ms:10000}")
+    public void sync() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<RevokedToken> rows = revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(
+                    syncedUpTo.minusSeconds(SYNC_OVERLAP_SECONDS), now);
+            remember(rows);
+            rows.stream()
+                    .map(RevokedToken::getRevokedAt)
+                    .max(LocalDateTime::compareTo)
+                    .ifPresent(latest -> syncedUpTo = latest);
+
+            long nowMillis = System.currentTimeMillis();
+            revoked.values().removeIf(expiresAt -> expiresAt < nowMillis);
+            revokedTokenRepository.deleteExpired(now);
+        } catch (RuntimeException e) {
+            log.warn("Token revocation sync failed", e);
+        }
+    }
+
+    private void remember(Collection<RevokedToken> rows) {
+        for (RevokedToken row : rows) {
+            revoked.put(row.getJti(), row.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.tajeats.tajeats_backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes session carts in {@code cart_items} that nobody has written to within the TTL.
+ * Runs on every node but only the one holding a Postgres advisory lock sweeps; the lock and
+ * all chunked deletes share one connection so the lock is released with it. Only active
+ * with the database cart store; in-memory carts expire on their own.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.cart.store", havingValue = "database")
+public class AbandonedCartSweeper {
+
+    // Arbitrary application-wide key for pg_try_advisory_lock
+    private static final long SWEEPER_LOCK_KEY = 0x7461_6A65_6174_7301L;
+
+    // Chunks by session, so a cart is never split across chunks and each returned session is one cart
+    private static final String DELETE_EXPIRED_CHUNK = "WITH expired AS ("
+            + "SELECT DISTINCT session_id FROM cart_items WHERE last_touched_at IS NULL OR last_touched_at < ? LIMIT ?) "
+            + "DELETE FROM cart_items c USING expired e WHERE c.session_id = e.session_id "
+            + "AND (c.last_touched_at IS NULL OR c.last_touched_at < ?) RETURNING c.session_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Counter cartsSwept;
+    private final AtomicLong estimatedRows = new AtomicLong();
+
+    @Value("${app.cart.ttl-minutes:1440}")
+    private long ttlMinutes;
+
+    // Carts per chunk; each holds at most app.cart.max-lines rows
+    @Value("${app.cart.sweep.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${app.cart.sweep.max-chunks:100}")
+    private int maxChunks;
+
+    public AbandonedCartSweeper(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cartsSwept = Counter.builder("tajeats.cart.carts.swept")
+                .description("Abandoned session carts deleted by the sweeper")
+                .register(meterRegistry);
+        Gauge.builder("tajeats.cart.rows.estimated", estimatedRows, AtomicLong::get)
+                .description("Planner estimate of rows in cart_items")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.cart.sweep.interval-ms:300000}",
+            fixedDelayString = "${app.cart.sweep.interval-ms:300000}"
+    )
+    public void sweep() {
+        try {
+            Integer swept = jdbcTemplate.execute(this::sweepWithLock);
+            if (swept != null && swept > 0) {
+                log.info("Swept {} abandoned carts", swept);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Abandoned cart sweep failed", e);
+        }
+    }
+
+    private Integer sweepWithLock(Connection connection) throws SQLException {
+        if (!tryLock(connection)) {
+            return null;
+        }
+        try {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(true);
+            try {
+                int total = deleteExpired(connection);
+                estimatedRows.set(estimateRows(connection));
+                return total;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } finally {
+            try (PreparedStatement unlock = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+                unlock.setLong(1, SWEEPER_LOCK_KEY);
+                unlock.execute();
+            }
+        }
+    }
+
+    // Each chunk commits on its own so locks on cart_items are held only briefly
+    private int deleteExpired(Connection connection) throws SQLException {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusMinutes(ttlMinutes));
+        int total = 0;
+        try (PreparedStatement delete = connection.prepareStatement(DELETE_EXPIRED_CHUNK)) {
+            delete.setTimestamp(1, cutoff);
+            delete.setInt(2, chunkSize);
+            delete.setTimestamp(3, cutoff);
+            for (int chunk = 0; chunk < maxChunks; chunk++) {
+                Set<String> carts = new HashSet<>();
+                try (ResultSet rs = delete.executeQuery()) {
+                    while (rs.next()) {
+                        carts.add(rs.getString(1));
+                    }
+                }
+                total += carts.size();
+                cartsSwept.increment(carts.size());
+                if (carts.size() < chunkSize) {
+                    break;
+                }
+            }
+        }
+        return total;
+    }
+
+    private boolean tryLock(Connection connection) throws SQLException {
+        try (PreparedStatement lock = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            lock.setLong(1, SWEEPER_LOCK_KEY);
+            try (ResultSet rs = lock.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    // reltuples is maintained by VACUUM/ANALYZE, so reading it costs nothing unlike count(*)
+    private long estimateRows(Connection connection) throws SQLException {
+        try (PreparedStatement estimate = connection.prepareStatement(
+                "SELECT reltuples::bigint FROM pg_class WHERE oid = 'cart_items'::regclass");
+             ResultSet rs = estimate.executeQuery()) {
+            return rs.next() ? Math.max(0, rs.getLong(1)) : 0;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.tajeats.tajeats_backend.service;
+
+/**
+ * A short-lived access token (JWT) and the opaque refresh token that renews it.
+ */
+public record AuthTokens(String accessToken, String refreshToken) {
+}
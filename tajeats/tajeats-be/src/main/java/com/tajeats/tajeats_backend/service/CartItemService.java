@@ -2,151 +2,167 @@ package com.tajeats.tajeats_backend.service;
 
 import com.tajeats.tajeats_backend.dto.CartItemDTO;
 import com.tajeats.tajeats_backend.dto.CartItemResponseDTO;
+import com.tajeats.tajeats_backend.dto.CartSummaryDTO;
 import com.tajeats.tajeats_backend.dto.DishDTO;
 import com.tajeats.tajeats_backend.exception.ResourceNotFoundException;
-import com.tajeats.tajeats_backend.model.CartItem;
-import com.tajeats.tajeats_backend.model.Dish;
-import com.tajeats.tajeats_backend.model.Order;
-import com.tajeats.tajeats_backend.repository.CartItemRepository;
-import com.tajeats.tajeats_backend.repository.DishRepository;
-import com.tajeats.tajeats_backend.repository.OrderRepository;
-import jakarta.transaction.Transactional;
+import com.tajeats.tajeats_backend.exception.ValidationException;
+import com.tajeats.tajeats_backend.service.CartPricingService.LineRequest;
+import com.tajeats.tajeats_backend.service.CartPricingService.PricedLine;
+import com.tajeats.tajeats_backend.service.CartPricingService.Quote;
+import com.tajeats.tajeats_backend.service.CartStore.CartLine;
+import com.tajeats.tajeats_backend.util.Cents;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
-@Transactional
 public class CartItemService {
 
-    private final CartItemRepository cartItemRepository;
-    private final OrderRepository orderRepository;
-    private final DishRepository dishRepository;
-    private final DishService dishService;
-
-    public CartItemService(
-            CartItemRepository cartItemRepository,
-            OrderRepository orderRepository,
-            DishRepository dishRepository,
-            DishService dishService
-    ) {
-        this.cartItemRepository = cartItemRepository;
-        this.orderRepository = orderRepository;
-        this.dishRepository = dishRepository;
-        this.dishService = dishService;
+    private static final int MAX_QUANTITY = 99;
+
+    private final CartStore cartStore;
+    private final CatalogCache catalogCache;
+    private final CartPricingService cartPricingService;
+
+    public CartItemService(CartStore cartStore, CatalogCache catalogCache, CartPricingService cartPricingService) {
+        this.cartStore = cartStore;
+        this.catalogCache = catalogCache;
+        this.cartPricingService = cartPricingService;
     }
 
     // --------------------------- GET ALL --------------------------
-    public List<CartItemDTO> getAll() {
-        return cartItemRepository.findAll().stream()
-                .map(this::toDTO)
+    public List<CartItemDTO> getAll(String sessionId) {
+        requireSession(sessionId);
+        return cartStore.getLines(sessionId).stream()
+                .map(line -> toDTO(sessionId, line))
                 .collect(Collectors.toList());
     }
 
     // --------------------------- GET BY ID -------------------------
-    public CartItemDTO getById(Long id) {
-        return cartItemRepository.findById(id)
-                .map(this::toDTO)
-                .orElse(null);
+    public CartItemDTO getById(String sessionId, Long id) {
+        requireSession(sessionId);
+        return cartStore.getLines(sessionId).stream()
+                .filter(line -> line.id().equals(id))
+                .findFirst()
+                .map(line -> toDTO(sessionId, line))
+                .orElseThrow(() -> new ResourceNotFoundException("Cart item not found"));
     }
 
     // --------------------------- CREATE ----------------------------
     public CartItemDTO create(CartItemDTO dto) {
+        requireSession(dto.getSessionId());
+        validateQuantity(dto.getQuantity());
+        catalogCache.get(dto.getDishId());
 
-        Order order = orderRepository.findById(dto.getOrderId())
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
-
-        Dish dish = dishRepository.findById(dto.getDishId())
-                .orElseThrow(() -> new ResourceNotFoundException("Dish not found"));
-
-        CartItem item = new CartItem();
-        item.setOrder(order);
-        item.setDish(dish);
-        item.setQuantity(dto.getQuantity());
-
-        return toDTO(cartItemRepository.save(item));
+        return toDTO(dto.getSessionId(), cartStore.add(dto.getSessionId(), dto.getDishId(), dto.getQuantity()));
     }
 
     // --------------------------- UPDATE ----------------------------
-    public CartItemDTO update(Long id, CartItemDTO dto) {
-        CartItem item = cartItemRepository.findById(id)
+    public CartItemDTO update(String sessionId, Long id, CartItemDTO dto) {
+        requireSession(sessionId);
+        validateQuantity(dto.getQuantity());
+
+        return cartStore.setQuantity(sessionId, id, dto.getQuantity())
+                .map(line -> toDTO(sessionId, line))
                 .orElseThrow(() -> new ResourceNotFoundException("Cart item not found"));
+    }
 
-        item.setQuantity(dto.getQuantity());
+    // --------------------------- DELETE ----------------------------
+    public void delete(String sessionId, Long id) {
+        requireSession(sessionId);
+        cartStore.remove(sessionId, id);
+    }
 
-        if (dto.getDishId() != null) {
-            Dish dish = dishRepository.findById(dto.getDishId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Dish not found"));
-            item.setDish(dish);
+    // --------------------------- SESSION-BASED CART ----------------------------
+    public List<CartItemResponseDTO> getCartBySession(String sessionId) {
+        List<CartItemResponseDTO> items = new ArrayList<>();
+        for (CartLine line : cartStore.getLines(sessionId)) {
+            // Dishes deleted since they were added simply drop out of the cart
+            Optional<DishDTO> dish = catalogCache.find(line.dishId());
+            dish.ifPresent(d -> items.add(toResponseDTO(sessionId, line, d)));
         }
+        return items;
+    }
+
+    public CartItemResponseDTO addToSessionCart(String sessionId, Long dishId, Integer quantity) {
+        validateQuantity(quantity);
+        DishDTO dish = catalogCache.get(dishId);
 
-        return toDTO(cartItemRepository.save(item));
+        return toResponseDTO(sessionId, cartStore.add(sessionId, dishId, quantity), dish);
     }
 
-    // --------------------------- DELETE ----------------------------
-    public void delete(Long id) {
-        cartItemRepository.deleteById(id);
+    public void clearSessionCart(String sessionId) {
+        cartStore.clear(sessionId);
     }
-    
-    // --------------------------- SESSION-BASED CART ----------------------------
-    public List<CartItemResponseDTO> getCartBySession(String sessionId) {
-        return cartItemRepository.findBySessionId(sessionId).stream()
-                .map(this::toResponseDTO)
+
+    public CartSummaryDTO getSummary(String sessionId, String deliveryType) {
+        String type = deliveryType != null ? deliveryType : "DELIVERY";
+        List<LineRequest> requests = cartStore.getLines(sessionId).stream()
+                .map(line -> new LineRequest(line.id(), line.dishId(), line.quantity()))
                 .collect(Collectors.toList());
+        Quote quote = cartPricingService.quote(null, requests, type);
+
+        CartSummaryDTO dto = new CartSummaryDTO();
+        dto.setSessionId(sessionId);
+        dto.setDeliveryType(type);
+        if (quote.restaurant() != null) {
+            dto.setRestaurantId(quote.restaurant().getId());
+            dto.setRestaurantName(quote.restaurant().getName());
+            dto.setRestaurantOpen(Boolean.TRUE.equals(quote.restaurant().getIsOpen()));
+        }
+        dto.setItems(quote.lines().stream().map(this::toSummaryLine).collect(Collectors.toList()));
+        dto.setItemCount(quote.lines().stream().mapToInt(PricedLine::quantity).sum());
+        dto.setSubtotal(Cents.toAmount(quote.subtotalCents()));
+        dto.setDeliveryFee(Cents.toAmount(quote.deliveryFeeCents()));
+        dto.setTotal(Cents.toAmount(quote.totalCents()));
+        dto.setMinOrder(Cents.toAmount(quote.minOrderCents()));
+        dto.setCheckoutAllowed(quote.checkoutAllowed());
+        dto.setProblems(quote.problems());
+        return dto;
     }
-    
-    public CartItemResponseDTO addToSessionCart(String sessionId, Long dishId, Integer quantity) {
-        Dish dish = dishRepository.findById(dishId)
-                .orElseThrow(() -> new ResourceNotFoundException("Dish not found"));
-        
-        // Check if item already exists in session cart
-        List<CartItem> existingItems = cartItemRepository.findBySessionId(sessionId);
-        for (CartItem item : existingItems) {
-            if (item.getDish().getId().equals(dishId)) {
-                // Update quantity
-                item.setQuantity(item.getQuantity() + quantity);
-                return toResponseDTO(cartItemRepository.save(item));
-            }
+
+    private void requireSession(String sessionId) {
+        if (sessionId == null || sessionId.isBlank()) {
+            throw new ValidationException("Session id is required");
         }
-        
-        // Create new item
-        CartItem item = new CartItem();
-        item.setSessionId(sessionId);
-        item.setDish(dish);
-        item.setQuantity(quantity);
-        item.setOrder(null); // No order yet, this is pre-order cart
-        
-        return toResponseDTO(cartItemRepository.save(item));
     }
-    
-    public void clearSessionCart(String sessionId) {
-        cartItemRepository.deleteBySessionId(sessionId);
+
+    private void validateQuantity(Integer quantity) {
+        if (quantity == null || quantity < 1 || quantity > MAX_QUANTITY) {
+            throw new ValidationException("Quantity must be between 1 and " + MAX_QUANTITY);
+        }
     }
 
     // --------------------------- MAPPER ----------------------------
-    private CartItemDTO toDTO(CartItem item) {
+    private CartItemDTO toDTO(String sessionId, CartLine line) {
         CartItemDTO dto = new CartItemDTO();
-        dto.setId(item.getId());
-        if (item.getOrder() != null) {
-            dto.setOrderId(item.getOrder().getId());
-        }
-        dto.setDishId(item.getDish().getId());
-        dto.setQuantity(item.getQuantity());
-        dto.setSessionId(item.getSessionId());
+        dto.setId(line.id());
+        dto.setDishId(line.dishId());
+        dto.setQuantity(line.quantity());
+        dto.setSessionId(sessionId);
         return dto;
     }
-    
-    private CartItemResponseDTO toResponseDTO(CartItem item) {
+
+    private CartSummaryDTO.Line toSummaryLine(PricedLine line) {
+        CartSummaryDTO.Line dto = new CartSummaryDTO.Line();
+        dto.setId(line.lineId());
+        dto.setDishId(line.dishId());
+        dto.setDishName(line.dishName());
+        dto.setUnitPrice(Cents.toAmount(line.unitPriceCents()));
+        dto.setQuantity(line.quantity());
+        dto.setLineTotal(Cents.toAmount(line.totalCents()));
+        return dto;
+    }
+
+    private CartItemResponseDTO toResponseDTO(String sessionId, CartLine line, DishDTO dish) {
         CartItemResponseDTO dto = new CartItemResponseDTO();
-        dto.setId(item.getId());
-        dto.setSessionId(item.getSessionId());
-        dto.setQuantity(item.getQuantity());
-        
-        // Embed full dish data
-        DishDTO dishDTO = dishService.getById(item.getDish().getId());
-        dto.setDish(dishDTO);
-        
+        dto.setId(line.id());
+        dto.setSessionId(sessionId);
+        dto.setQuantity(line.quantity());
+        dto.setDish(dish);
         return dto;
     }
 }
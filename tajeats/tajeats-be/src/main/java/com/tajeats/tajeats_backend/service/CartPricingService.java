@@ -0,0 +1,113 @@
+package com.tajeats.tajeats_backend.service;
+
+import com.tajeats.tajeats_backend.dto.DishDTO;
+import com.tajeats.tajeats_backend.dto.RestaurantDTO;
+import com.tajeats.tajeats_backend.exception.ResourceNotFoundException;
+import com.tajeats.tajeats_backend.util.Cents;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Authoritative pricing for carts and orders. Prices, fees and limits come from the
+ * {@link CatalogCache} and all arithmetic is done in whole cents.
+ */
+@Service
+@RequiredArgsConstructor
+public class CartPricingService {
+
+    private final CatalogCache catalogCache;
+    private final DishAvailabilityService dishAvailabilityService;
+
+    public record LineRequest(Long lineId, Long dishId, int quantity) {
+    }
+
+    public record PricedLine(Long lineId, Long dishId, String dishName, long unitPriceCents, int quantity) {
+        public long totalCents() {
+            return unitPriceCents * quantity;
+        }
+    }
+
+    public record Quote(
+            RestaurantDTO restaurant,
+            List<PricedLine> lines,
+            long subtotalCents,
+            long deliveryFeeCents,
+            long minOrderCents,
+            List<String> problems
+    ) {
+        public long totalCents() {
+            return subtotalCents + deliveryFeeCents;
+        }
+
+        public boolean checkoutAllowed() {
+            return problems.isEmpty();
+        }
+    }
+
+    /**
+     * Price the given lines for one restaurant. Problems that block checkout (closed restaurant,
+     * foreign or sold-out dishes, minimum order not reached) are collected rather than thrown.
+     *
+     * @param restaurantId Restaurant to order from, or null to use the one of the first dish
+     * @throws ResourceNotFoundException if the restaurant does not exist
+     */
+    public Quote quote(Long restaurantId, List<LineRequest> requests, String deliveryType) {
+        List<PricedLine> lines = new ArrayList<>(requests.size());
+        List<String> problems = new ArrayList<>();
+        long subtotal = 0;
+
+        for (LineRequest request : requests) {
+            DishDTO dish = catalogCache.find(request.dishId()).orElse(null);
+            if (dish == null) {
+                problems.add("Dish " + request.dishId() + " no longer exists");
+                continue;
+            }
+            if (restaurantId == null) {
+                restaurantId = dish.getRestaurantId();
+            }
+            if (!restaurantId.equals(dish.getRestaurantId())) {
+                problems.add(dish.getName() + " is from a different restaurant");
+                continue;
+            }
+            if (!dishAvailabilityService.isAvailable(restaurantId, dish.getId())) {
+                problems.add(dish.getName() + " is not available");
+            }
+            PricedLine line = new PricedLine(
+                    request.lineId(), dish.getId(), dish.getName(), Cents.of(dish.getPrice()), request.quantity()
+            );
+            lines.add(line);
+            subtotal += line.totalCents();
+        }
+
+        if (restaurantId == null) {
+            problems.add("Cart is empty");
+            return new Quote(null, lines, 0, 0, 0, problems);
+        }
+
+        RestaurantDTO restaurant = catalogCache.getRestaurant(restaurantId);
+        boolean delivery = !"PICKUP".equals(deliveryType);
+        long deliveryFee = delivery ? Cents.of(restaurant.getDeliveryFee()) : 0;
+        long minOrder = Cents.of(restaurant.getMinOrder());
+
+        if (lines.isEmpty()) {
+            problems.add("Cart is empty");
+        }
+        if (!Boolean.TRUE.equals(restaurant.getIsOpen())) {
+            problems.add(restaurant.getName() + " is currently closed");
+        }
+        if (delivery && "PICKUP".equals(restaurant.getDeliveryMode())) {
+            problems.add(restaurant.getName() + " only offers pickup");
+        }
+        if (!delivery && "DELIVERY".equals(restaurant.getDeliveryMode())) {
+            problems.add(restaurant.getName() + " only offers delivery");
+        }
+        if (subtotal < minOrder) {
+            problems.add("Minimum order is " + Cents.toAmount(minOrder));
+        }
+
+        return new Quote(restaurant, lines, subtotal, deliveryFee, minOrder, problems);
+    }
+}
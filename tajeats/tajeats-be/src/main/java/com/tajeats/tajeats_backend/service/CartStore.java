@@ -0,0 +1,35 @@
+package com.tajeats.tajeats_backend.service;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Storage for pre-checkout session carts, keyed by the client's session id.
+ * The in-memory store is the default; {@code app.cart.store=database} keeps carts in
+ * {@code cart_items} so several nodes can share them. Lines are merged per dish.
+ */
+public interface CartStore {
+
+    record CartLine(Long id, Long dishId, int quantity) {
+    }
+
+    List<CartLine> getLines(String sessionId);
+
+    /**
+     * Adds {@code quantity} of a dish, merging into the existing line for that dish.
+     */
+    CartLine add(String sessionId, Long dishId, int quantity);
+
+    Optional<CartLine> setQuantity(String sessionId, Long lineId, int quantity);
+
+    boolean remove(String sessionId, Long lineId);
+
+    void clear(String sessionId);
+
+    /**
+     * Atomically removes and returns the session's lines for checkout. Must run inside the
+     * checkout transaction: if it rolls back the cart is restored, and a concurrent second
+     * checkout of the same session sees an empty cart.
+     */
+    List<CartLine> takeForCheckout(String sessionId);
+}
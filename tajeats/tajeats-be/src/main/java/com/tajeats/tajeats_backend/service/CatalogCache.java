@@ -0,0 +1,89 @@
+package com.tajeats.tajeats_backend.service;
+
+import com.tajeats.tajeats_backend.dto.DishDTO;
+import com.tajeats.tajeats_backend.dto.RestaurantDTO;
+import com.tajeats.tajeats_backend.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of dish and restaurant DTOs for carts and pricing, so neither
+ * queries the database per line. Dishes of a restaurant are dropped on every menu
+ * change and a restaurant's entry on every change to the restaurant itself.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogCache {
+
+    private final DishService dishService;
+    private final RestaurantService restaurantService;
+
+    private final Map<Long, DishDTO> dishes = new ConcurrentHashMap<>();
+    private final Map<Long, RestaurantDTO> restaurants = new ConcurrentHashMap<>();
+    // Bumped on every change; a load that raced with a change is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    @Value("${app.catalog.max-entries:20000}")
+    private int maxEntries;
+
+    // ---------- Dishes ----------
+    /**
+     * @throws ResourceNotFoundException if the dish does not exist
+     */
+    public DishDTO get(Long dishId) {
+        return load(dishes, dishId, dishService::getById);
+    }
+
+    public Optional<DishDTO> find(Long dishId) {
+        try {
+            return Optional.of(get(dishId));
+        } catch (ResourceNotFoundException e) {
+            return Optional.empty();
+        }
+    }
+
+    // ---------- Restaurants ----------
+    /**
+     * @throws ResourceNotFoundException if the restaurant does not exist or was deleted
+     */
+    public RestaurantDTO getRestaurant(Long restaurantId) {
+        return load(restaurants, restaurantId, restaurantService::getById);
+    }
+
+    // ---------- Invalidation ----------
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        generation.incrementAndGet();
+        dishes.values().removeIf(dish -> event.restaurantId().equals(dish.getRestaurantId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        generation.incrementAndGet();
+        restaurants.remove(event.restaurantId());
+    }
+
+    private <T> T load(Map<Long, T> cache, Long id, Function<Long, T> loader) {
+        T cached = cache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        long seen = generation.get();
+        T loaded = loader.apply(id);
+        if (generation.get() == seen) {
+            if (cache.size() >= maxEntries) {
+                cache.clear();
+            }
+            cache.put(id, loaded);
+        }
+        return loaded;
+    }
+}
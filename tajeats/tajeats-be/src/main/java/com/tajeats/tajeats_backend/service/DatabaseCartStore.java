@@ -0,0 +1,81 @@
+package com.tajeats.tajeats_backend.service;
+
+import com.tajeats.tajeats_backend.model.CartItem;
+import com.tajeats.tajeats_backend.repository.CartItemRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * {@link CartStore} on the {@code cart_items} table, for deployments where several
+ * nodes must see the same carts. Enabled with {@code app.cart.store=database}.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+@ConditionalOnProperty(name = "app.cart.store", havingValue = "database")
+public class DatabaseCartStore implements CartStore {
+
+    private final CartItemRepository cartItemRepository;
+
+    @Override
+    public List<CartLine> getLines(String sessionId) {
+        return cartItemRepository.findBySessionId(sessionId).stream()
+                .map(this::toLine)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public CartLine add(String sessionId, Long dishId, int quantity) {
+        CartItemRepository.CartLineRow row = cartItemRepository.upsertQuantity(
+                sessionId, dishId, quantity, LocalDateTime.now()
+        );
+        return new CartLine(row.getId(), dishId, row.getQuantity());
+    }
+
+    @Override
+    public Optional<CartLine> setQuantity(String sessionId, Long lineId, int quantity) {
+        Optional<CartLine> line = cartItemRepository.findByIdAndSessionId(lineId, sessionId).map(item -> {
+            item.setQuantity(quantity);
+            return toLine(item);
+        });
+        line.ifPresent(l -> touch(sessionId));
+        return line;
+    }
+
+    @Override
+    public boolean remove(String sessionId, Long lineId) {
+        boolean removed = cartItemRepository.deleteByIdAndSessionId(lineId, sessionId) > 0;
+        if (removed) {
+            touch(sessionId);
+        }
+        return removed;
+    }
+
+    @Override
+    public void clear(String sessionId) {
+        cartItemRepository.deleteBySessionId(sessionId);
+    }
+
+    // The whole cart stays alive as long as any of its lines is written
+    private void touch(String sessionId) {
+        cartItemRepository.touchSession(sessionId, LocalDateTime.now());
+    }
+
+    @Override
+    public List<CartLine> takeForCheckout(String sessionId) {
+        return cartItemRepository.takeBySessionId(sessionId).stream()
+                .map(row -> new CartLine(row.getId(), row.getDishId(), row.getQuantity()))
+                .collect(Collectors.toList());
+    }
+
+    private CartLine toLine(CartItem item) {
+        return new CartLine(item.getId(), item.getDish().getId(), item.getQuantity());
+    }
+}
@@ -0,0 +1,168 @@
+package com.tajeats.tajeats_backend.service;
+
+import com.tajeats.tajeats_backend.dto.FeedPageDTO;
+import com.tajeats.tajeats_backend.dto.RestaurantDTO;
+import com.tajeats.tajeats_backend.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Ranked restaurant lists for the home page, per city and category.
+ * Rankings are recomputed on a schedule into an immutable snapshot that is swapped
+ * atomically, so serving a page is only a map lookup and a sublist.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DiscoveryFeedService {
+
+    private static final String ALL = "*";
+    private static final int MAX_PAGE_SIZE = 50;
+
+    // Score weights, summing to 1
+    private static final double WEIGHT_RATING = 0.35;
+    private static final double WEIGHT_REVIEWS = 0.10;
+    private static final double WEIGHT_ORDERS = 0.30;
+    private static final double WEIGHT_OPEN = 0.15;
+    private static final double WEIGHT_DELIVERY_FEE = 0.10;
+
+    // Bayesian prior so a single 5-star review does not outrank established restaurants
+    private static final double PRIOR_RATING = 3.5;
+    private static final int PRIOR_REVIEWS = 5;
+
+    private final RestaurantService restaurantService;
+    private final OrderRepository orderRepository;
+
+    private final AtomicReference<FeedSnapshot> snapshot = new AtomicReference<>(FeedSnapshot.EMPTY);
+
+    @Value("${app.feed.order-window-days:7}")
+    private int orderWindowDays;
+
+    private record FeedSnapshot(Map<String, List<RestaurantDTO>> rankings, LocalDateTime generatedAt) {
+        static final FeedSnapshot EMPTY = new FeedSnapshot(Map.of(), null);
+    }
+
+    // ---------- Read ----------
+    public FeedPageDTO getFeed(String city, String category, int page, int size) {
+        FeedSnapshot current = snapshot.get();
+        List<RestaurantDTO> ranking = current.rankings().getOrDefault(key(city, category), List.of());
+
+        int safeSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int safePage = Math.max(0, page);
+        int from = (int) Math.min((long) safePage * safeSize, ranking.size());
+        int to = Math.min(from + safeSize, ranking.size());
+
+        return new FeedPageDTO(ranking.subList(from, to), safePage, safeSize, ranking.size(), current.generatedAt());
+    }
+
+    // ---------- Refresh ----------
+    @Scheduled(
+            initialDelayString = "${app.feed.initial-delay-ms:0}",
+            fixedDelayString = "${app.feed.refresh-interval-ms:60000}"
+    )
+    public void refresh() {
+        try {
+            snapshot.set(compute());
+        } catch (RuntimeException e) {
+            // Keep serving the previous snapshot
+            log.error("Failed to refresh discovery feed", e);
+        }
+    }
+
+    private FeedSnapshot compute() {
+        List<RestaurantDTO> restaurants = restaurantService.getAll();
+        Map<Long, Long> recentOrders = recentOrderCounts();
+
+        int maxReviews = restaurants.stream()
+                .mapToInt(r -> r.getReviewCount() != null ? r.getReviewCount() : 0).max().orElse(0);
+        long maxOrders = recentOrders.values().stream().mapToLong(Long::longValue).max().orElse(0);
+        double maxFee = restaurants.stream()
+                .map(RestaurantDTO::getDeliveryFee)
+                .filter(fee -> fee != null)
+                .mapToDouble(BigDecimal::doubleValue).max().orElse(0);
+
+        Map<Long, Double> scores = new HashMap<>();
+        for (RestaurantDTO r : restaurants) {
+            scores.put(r.getId(), score(r, recentOrders.getOrDefault(r.getId(), 0L), maxReviews, maxOrders, maxFee));
+        }
+
+        // Bucket every restaurant under its city/category and the wildcards
+        Map<String, List<RestaurantDTO>> buckets = new HashMap<>();
+        for (RestaurantDTO r : restaurants) {
+            Set<String> keys = new LinkedHashSet<>();
+            for (String city : List.of(ALL, normalize(r.getCity()))) {
+                for (String category : List.of(ALL, normalize(r.getCategory()))) {
+                    keys.add(city + "|" + category);
+                }
+            }
+            keys.forEach(k -> buckets.computeIfAbsent(k, ignored -> new ArrayList<>()).add(r));
+        }
+
+        Comparator<RestaurantDTO> byScore = Comparator
+                .comparingDouble((RestaurantDTO r) -> scores.get(r.getId())).reversed()
+                .thenComparing(RestaurantDTO::getId);
+
+        Map<String, List<RestaurantDTO>> rankings = new HashMap<>();
+        buckets.forEach((k, list) -> {
+            list.sort(byScore);
+            rankings.put(k, List.copyOf(list));
+        });
+
+        log.debug("Discovery feed refreshed: {} restaurants, {} lists", restaurants.size(), rankings.size());
+        return new FeedSnapshot(Map.copyOf(rankings), LocalDateTime.now());
+    }
+
+    private double score(RestaurantDTO r, long orders, int maxReviews, long maxOrders, double maxFee) {
+        int reviews = r.getReviewCount() != null ? r.getReviewCount() : 0;
+        double rating = r.getRating() != null ? r.getRating() : 0.0;
+        double adjustedRating = (rating * reviews + PRIOR_RATING * PRIOR_REVIEWS) / (reviews + PRIOR_REVIEWS);
+
+        double score = WEIGHT_RATING * (adjustedRating / 5.0);
+        score += WEIGHT_REVIEWS * logShare(reviews, maxReviews);
+        score += WEIGHT_ORDERS * logShare(orders, maxOrders);
+        if (Boolean.TRUE.equals(r.getIsOpen())) {
+            score += WEIGHT_OPEN;
+        }
+        double fee = r.getDeliveryFee() != null ? r.getDeliveryFee().doubleValue() : 0.0;
+        score += WEIGHT_DELIVERY_FEE * (maxFee > 0 ? 1.0 - fee / maxFee : 1.0);
+        return score;
+    }
+
+    private double logShare(long value, long max) {
+        return max > 0 ? Math.log1p(value) / Math.log1p(max) : 0.0;
+    }
+
+    private Map<Long, Long> recentOrderCounts() {
+        Timestamp since = Timestamp.valueOf(LocalDateTime.now().minusDays(orderWindowDays));
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : orderRepository.countOrdersByRestaurantSince(since)) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    // ---------- Keys ----------
+    private static String key(String city, String category) {
+        return normalize(city) + "|" + normalize(category);
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isBlank() ? ALL : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,7 @@
+package com.tajeats.tajeats_backend.service;
+
+/**
+ * Published when a dish is marked available or sold out ("86'd").
+ */
+public record DishAvailabilityChangedEvent(Long restaurantId, Long dishId, boolean available) {
+}
@@ -0,0 +1,202 @@
+package com.tajeats.tajeats_backend.service;
+
+import com.tajeats.tajeats_backend.exception.ResourceNotFoundException;
+import com.tajeats.tajeats_backend.repository.DishRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Live dish availability ("86 list") per restaurant.
+ * Keeps an immutable bitset per restaurant for query-free checks at order time
+ * and pushes changes to open menus over Server-Sent Events.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DishAvailabilityService {
+
+    private static final long STREAM_TIMEOUT_MS = 30 * 60 * 1000L;
+
+    private final DishRepository dishRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogCache catalogCache;
+
+    private final Map<Long, AvailabilitySet> availability = new ConcurrentHashMap<>();
+    private final Map<Long, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    /**
+     * Sorted dish ids of one restaurant plus a bitset of which of them are available.
+     * Never mutated; updates swap in a copy.
+     */
+    private record AvailabilitySet(long[] dishIds, BitSet available) {
+
+        boolean isAvailable(long dishId) {
+            int index = Arrays.binarySearch(dishIds, dishId);
+            return index >= 0 && available.get(index);
+        }
+
+        AvailabilitySet with(long dishId, boolean value) {
+            int index = Arrays.binarySearch(dishIds, dishId);
+            if (index < 0) {
+                return this;
+            }
+            BitSet copy = (BitSet) available.clone();
+            copy.set(index, value);
+            return new AvailabilitySet(dishIds, copy);
+        }
+
+        List<Long> unavailable() {
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < dishIds.length; i++) {
+                if (!available.get(i)) {
+                    ids.add(dishIds[i]);
+                }
+            }
+            return ids;
+        }
+    }
+
+    // ---------- Reads ----------
+    /**
+     * @return false when the dish is sold out or not on this restaurant's menu
+     */
+    public boolean isAvailable(Long restaurantId, Long dishId) {
+        try {
+            return availabilityOf(restaurantId).isAvailable(dishId);
+        } catch (ResourceNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @throws ResourceNotFoundException if the restaurant does not exist or was deleted
+     */
+    public List<Long> getUnavailable(Long restaurantId) {
+        return availabilityOf(restaurantId).unavailable();
+    }
+
+    // ---------- Writes ----------
+    /**
+     * Flip Dish.isAvailable with a single UPDATE ... RETURNING statement.
+     */
+    @Transactional
+    public void setAvailability(Long dishId, boolean available) {
+        Long restaurantId = dishRepository.updateAvailability(dishId, available)
+                .orElseThrow(() -> new ResourceNotFoundException("Dish not found"));
+        eventPublisher.publishEvent(new DishAvailabilityChangedEvent(restaurantId, dishId, available));
+        eventPublisher.publishEvent(new MenuChangedEvent(restaurantId, true));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvailabilityChanged(DishAvailabilityChangedEvent event) {
+        availability.computeIfPresent(event.restaurantId(), (id, set) -> set.with(event.dishId(), event.available()));
+        broadcast(event.restaurantId(), "availability", Map.of(
+                "dishId", event.dishId(),
+                "isAvailable", event.available()
+        ));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        if (event.availabilityOnly()) {
+            // Already applied to the bitset by onAvailabilityChanged
+            return;
+        }
+        // Dishes may have been added, removed or moved; reload lazily on next use
+        availability.remove(event.restaurantId());
+    }
+
+    // ---------- Streaming ----------
+    /**
+     * @throws ResourceNotFoundException if the restaurant does not exist or was deleted
+     */
+    public SseEmitter subscribe(Long restaurantId) {
+        // Resolved before registering, so unknown ids never get an emitter list
+        List<Long> unavailable = getUnavailable(restaurantId);
+
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+        subscribers.compute(restaurantId, (id, emitters) -> {
+            List<SseEmitter> list = emitters != null ? emitters : new CopyOnWriteArrayList<>();
+            list.add(emitter);
+            return list;
+        });
+
+        Runnable unsubscribe = () -> unsubscribe(restaurantId, emitter);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+
+        // Start every stream with the current 86 list
+        send(restaurantId, emitter, "snapshot", Map.of(
+                "restaurantId", restaurantId,
+                "unavailable", unavailable
+        ));
+        return emitter;
+    }
+
+    // Drops the restaurant's list with its last emitter; compute keeps this atomic with subscribe
+    private void unsubscribe(Long restaurantId, SseEmitter emitter) {
+        subscribers.computeIfPresent(restaurantId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private void broadcast(Long restaurantId, String name, Object data) {
+        List<SseEmitter> emitters = subscribers.get(restaurantId);
+        if (emitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            send(restaurantId, emitter, name, data);
+        }
+    }
+
+    private void send(Long restaurantId, SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data));
+        } catch (IOException | IllegalStateException e) {
+            // Client went away
+            unsubscribe(restaurantId, emitter);
+            emitter.completeWithError(e);
+        }
+    }
+
+    // ---------- Loading ----------
+    // Only restaurants that exist are loaded, so anonymous callers cannot fill the map with made-up ids
+    private AvailabilitySet availabilityOf(Long restaurantId) {
+        AvailabilitySet cached = availability.get(restaurantId);
+        if (cached != null) {
+            return cached;
+        }
+        catalogCache.getRestaurant(restaurantId);
+        return availability.computeIfAbsent(restaurantId, this::load);
+    }
+
+    private AvailabilitySet load(Long restaurantId) {
+        List<Object[]> rows = dishRepository.findAvailabilityByRestaurantId(restaurantId);
+        long[] dishIds = new long[rows.size()];
+        BitSet available = new BitSet(rows.size());
+        // Rows are ordered by id, so indexes line up with the sorted id array
+        for (int i = 0; i < rows.size(); i++) {
+            dishIds[i] = (Long) rows.get(i)[0];
+            // Dishes never explicitly marked sold out count as available
+            available.set(i, !Boolean.FALSE.equals(rows.get(i)[1]));
+        }
+        return new AvailabilitySet(dishIds, available);
+    }
+}
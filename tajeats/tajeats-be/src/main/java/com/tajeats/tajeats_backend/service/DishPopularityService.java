@@ -0,0 +1,106 @@
+package com.tajeats.tajeats_backend.service;
+
+import com.tajeats.tajeats_backend.repository.DishRepository;
+import com.tajeats.tajeats_backend.util.SpaceSavingTopK;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Derives {@code Dish.isPopular} from order volume.
+ * Every committed order line feeds a per-restaurant {@link SpaceSavingTopK} with time decay; a scheduled
+ * job publishes the current top dishes of restaurants that received orders since the last run,
+ * touching only the rows whose flag actually changes. No aggregate query over order lines is needed.
+ *
+ * Sketches live in memory only, so after a restart a restaurant's flags are left alone until its
+ * sketch has seen {@code min-samples} ordered items again.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DishPopularityService {
+
+    private final DishRepository dishRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<Long, SpaceSavingTopK> sketches = new ConcurrentHashMap<>();
+    private final Map<Long, List<Long>> published = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.popularity.top-n:5}")
+    private int topN;
+
+    @Value("${app.popularity.counters-per-restaurant:32}")
+    private int countersPerRestaurant;
+
+    @Value("${app.popularity.half-life-hours:72}")
+    private long halfLifeHours;
+
+    @Value("${app.popularity.min-samples:50}")
+    private long minSamples;
+
+    // ---------- Record ----------
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        for (CartPricingService.PricedLine line : event.lines()) {
+            record(event.restaurantId(), line.dishId(), line.quantity());
+        }
+    }
+
+    public void record(Long restaurantId, Long dishId, Integer quantity) {
+        long now = System.currentTimeMillis();
+        sketches.computeIfAbsent(restaurantId,
+                id -> new SpaceSavingTopK(countersPerRestaurant, halfLifeHours * 3_600_000L, now)
+        ).offer(dishId, quantity != null ? quantity : 1, now);
+        dirty.add(restaurantId);
+    }
+
+    public List<Long> getTop(Long restaurantId) {
+        SpaceSavingTopK sketch = sketches.get(restaurantId);
+        return sketch != null ? sketch.top(topN) : List.of();
+    }
+
+    // ---------- Publish ----------
+    @Scheduled(
+            initialDelayString = "${app.popularity.publish-interval-ms:300000}",
+            fixedDelayString = "${app.popularity.publish-interval-ms:300000}"
+    )
+    public void publish() {
+        Set<Long> restaurantIds = new HashSet<>(dirty);
+        dirty.removeAll(restaurantIds);
+
+        for (Long restaurantId : restaurantIds) {
+            SpaceSavingTopK sketch = sketches.get(restaurantId);
+            if (sketch == null || sketch.hitsOffered() < minSamples) {
+                // Still warming up; the existing flags beat a ranking from a handful of orders.
+                // The order that completes the warm-up marks the restaurant dirty again.
+                continue;
+            }
+            List<Long> top = sketch.top(topN);
+            if (top.isEmpty() || top.equals(published.get(restaurantId))) {
+                continue;
+            }
+            try {
+                int changed = dishRepository.updatePopularity(restaurantId, top);
+                published.put(restaurantId, top);
+                if (changed > 0) {
+                    eventPublisher.publishEvent(new MenuChangedEvent(restaurantId));
+                }
+            } catch (RuntimeException e) {
+                // Retry on the next run
+                dirty.add(restaurantId);
+                log.warn("Failed to publish popular dishes for restaurant {}", restaurantId, e);
+            }
+        }
+    }
+}
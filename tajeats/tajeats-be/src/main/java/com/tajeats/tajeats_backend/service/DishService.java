@@ -1,16 +1,27 @@
 package com.tajeats.tajeats_backend.service;
 
 import com.tajeats.tajeats_backend.dto.DishDTO;
+import com.tajeats.tajeats_backend.exception.ConflictException;
 import com.tajeats.tajeats_backend.exception.ResourceNotFoundException;
+import com.tajeats.tajeats_backend.exception.ValidationException;
 import com.tajeats.tajeats_backend.model.Dish;
 import com.tajeats.tajeats_backend.model.Restaurant;
 import com.tajeats.tajeats_backend.repository.DishRepository;
+import com.tajeats.tajeats_backend.repository.MergePatchRepository;
 import com.tajeats.tajeats_backend.repository.RestaurantRepository;
+import com.tajeats.tajeats_backend.repository.SparseFieldsetRepository;
+import com.tajeats.tajeats_backend.util.FieldSelection;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,18 +29,51 @@ import java.util.stream.Collectors;
 @Transactional
 public class DishService {
 
+    // Fields selectable via ?fields= (DTO property -> entity path)
+    private static final Map<String, String> SPARSE_FIELDS = new LinkedHashMap<>();
+
+    static {
+        SPARSE_FIELDS.put("id", "id");
+        SPARSE_FIELDS.put("version", "version");
+        SPARSE_FIELDS.put("restaurantId", "restaurant.id");
+        SPARSE_FIELDS.putAll(FieldSelection.identity(
+                "name", "description", "price", "image", "imageSrcset", "imageWebpSrcset", "category",
+                "isAvailable", "isPopular"
+        ));
+    }
+
+    // Fields writable via PATCH (DTO property -> entity attribute)
+    private static final Map<String, String> PATCHABLE_FIELDS = new LinkedHashMap<>();
+
+    static {
+        PATCHABLE_FIELDS.put("restaurantId", "restaurant");
+        PATCHABLE_FIELDS.putAll(FieldSelection.identity(
+                "name", "description", "price", "image", "category", "isAvailable", "isPopular"
+        ));
+    }
+
+    // Patchable fields every dish must keep a value for
+    private static final Set<String> REQUIRED_FIELDS = Set.of("restaurantId", "name", "price");
+
     private final DishRepository dishRepository;
+    private final MergePatchRepository mergePatchRepository;
     private final RestaurantRepository restaurantRepository;
+    private final SparseFieldsetRepository sparseFieldsetRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ImageReferences imageReferences;
 
     // ---------- DTO Mapping ----------
     private DishDTO toDTO(Dish d) {
         DishDTO dto = new DishDTO();
         dto.setId(d.getId());
+        dto.setVersion(d.getVersion());
         dto.setRestaurantId(d.getRestaurant().getId());
         dto.setName(d.getName());
         dto.setDescription(d.getDescription());
         dto.setPrice(d.getPrice());
         dto.setImage(d.getImage());
+        dto.setImageSrcset(d.getImageSrcset());
+        dto.setImageWebpSrcset(d.getImageWebpSrcset());
         dto.setCategory(d.getCategory());
         dto.setIsAvailable(d.getIsAvailable());
         dto.setIsPopular(d.getIsPopular());
@@ -47,7 +91,7 @@ public class DishService {
         d.setIsAvailable(dto.getIsAvailable());
         d.setIsPopular(dto.getIsPopular());
 
-        Restaurant r = restaurantRepository.findById(dto.getRestaurantId())
+        Restaurant r = restaurantRepository.findByIdAndDeletedAtIsNull(dto.getRestaurantId())
                 .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found"));
 
         d.setRestaurant(r);
@@ -57,7 +101,7 @@ public class DishService {
 
     // ---------- CRUD ----------
     public List<DishDTO> getAll() {
-        return dishRepository.findAll().stream().map(this::toDTO).collect(Collectors.toList());
+        return dishRepository.findByRestaurantDeletedAtIsNull().stream().map(this::toDTO).collect(Collectors.toList());
     }
 
     public DishDTO getById(Long id) {
@@ -68,38 +112,167 @@ public class DishService {
 
     public DishDTO create(DishDTO dto) {
         Dish saved = dishRepository.save(toEntity(dto));
+        imageReferences.replaced(null, saved.getImage());
+        menuChanged(saved.getRestaurant().getId());
         return toDTO(saved);
     }
 
     public DishDTO update(Long id, DishDTO dto) {
         return dishRepository.findById(id).map(existing -> {
+            if (dto.getVersion() != null && !dto.getVersion().equals(existing.getVersion())) {
+                throw new ConflictException("Dish was modified by someone else, reload and try again");
+            }
 
             existing.setName(dto.getName());
             existing.setDescription(dto.getDescription());
             existing.setPrice(dto.getPrice());
+            if (!Objects.equals(existing.getImage(), dto.getImage())) {
+                // Variants belong to the old image
+                existing.setImageSrcset(null);
+                existing.setImageWebpSrcset(null);
+                imageReferences.replaced(existing.getImage(), dto.getImage());
+            }
             existing.setImage(dto.getImage());
             existing.setCategory(dto.getCategory());
+            boolean availabilityChanged = isAvailable(existing.getIsAvailable()) != isAvailable(dto.getIsAvailable());
             existing.setIsAvailable(dto.getIsAvailable());
             existing.setIsPopular(dto.getIsPopular());
 
-            Restaurant restaurant = restaurantRepository.findById(dto.getRestaurantId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found"));
-            existing.setRestaurant(restaurant);
+            // Only resolve the restaurant when the dish actually moves
+            if (dto.getRestaurantId() != null && !dto.getRestaurantId().equals(existing.getRestaurant().getId())) {
+                menuChanged(existing.getRestaurant().getId());
+                Restaurant restaurant = restaurantRepository.findByIdAndDeletedAtIsNull(dto.getRestaurantId())
+                        .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found"));
+                existing.setRestaurant(restaurant);
+            }
+            menuChanged(existing.getRestaurant().getId());
+            if (availabilityChanged) {
+                availabilityChanged(existing.getRestaurant().getId(), id, isAvailable(dto.getIsAvailable()));
+            }
 
             return toDTO(existing);
 
         }).orElseThrow(() -> new ResourceNotFoundException("Dish not found"));
     }
 
+    /**
+     * Apply a JSON Merge Patch in one UPDATE of the changed columns.
+     * @return The new version of the dish
+     */
+    public long patch(Long id, long expectedVersion, Map<String, Object> patch) {
+        Long restaurantId = dishRepository.findRestaurantIdById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Dish not found"));
+        Long movedTo = targetRestaurant(patch.get("restaurantId"));
+        // The patch is version-checked, so the image read at that version is the one it replaces
+        String previousImage = patch.containsKey("image") ? currentImage(id, expectedVersion) : null;
+
+        int updated = mergePatchRepository.patch(Dish.class, id, expectedVersion, patch, PATCHABLE_FIELDS, REQUIRED_FIELDS);
+        if (updated == 0) {
+            throw new ConflictException("Dish was modified by someone else, reload and try again");
+        }
+
+        if (patch.containsKey("image")) {
+            dishRepository.clearImageSrcset(id);
+            imageReferences.replaced(previousImage, Objects.toString(patch.get("image"), null));
+        }
+        menuChanged(restaurantId);
+        if (movedTo != null) {
+            menuChanged(movedTo);
+        }
+        if (patch.containsKey("isAvailable")) {
+            Object value = patch.get("isAvailable");
+            availabilityChanged(movedTo != null ? movedTo : restaurantId, id,
+                    value == null || Boolean.parseBoolean(value.toString()));
+        }
+        return expectedVersion + 1;
+    }
+
+    // Dishes only move to live restaurants; a null restaurantId is rejected by the patch itself
+    private Long targetRestaurant(Object value) {
+        if (value == null) {
+            return null;
+        }
+        long restaurantId;
+        try {
+            restaurantId = Long.parseLong(value.toString());
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Invalid value for field 'restaurantId'");
+        }
+        return restaurantRepository.findByIdAndDeletedAtIsNull(restaurantId)
+                .map(Restaurant::getId)
+                .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found"));
+    }
+
+    private String currentImage(Long id, long expectedVersion) {
+        Dish dish = dishRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Dish not found"));
+        if (dish.getVersion() != expectedVersion) {
+            throw new ConflictException("Dish was modified by someone else, reload and try again");
+        }
+        return dish.getImage();
+    }
+
     public void delete(Long id) {
-        dishRepository.deleteById(id);
+        dishRepository.findById(id).ifPresent(dish -> {
+            dishRepository.delete(dish);
+            menuChanged(dish.getRestaurant().getId());
+            if (dish.getImage() != null) {
+                eventPublisher.publishEvent(new ImageReleasedEvent(dish.getImage()));
+            }
+        });
+    }
+
+    // Derived menu read models refresh after the transaction commits
+    private void menuChanged(Long restaurantId) {
+        eventPublisher.publishEvent(new MenuChangedEvent(restaurantId));
+    }
+
+    // Open menus hear about sold-out changes the same way as through PUT /{id}/availability
+    private void availabilityChanged(Long restaurantId, Long dishId, boolean available) {
+        eventPublisher.publishEvent(new DishAvailabilityChangedEvent(restaurantId, dishId, available));
+    }
+
+    // Dishes never explicitly marked sold out count as available
+    private static boolean isAvailable(Boolean flag) {
+        return !Boolean.FALSE.equals(flag);
     }
     
     // ---------- Custom Queries ----------
     public List<DishDTO> getByRestaurant(Long restaurantId) {
-        return dishRepository.findByRestaurantId(restaurantId)
+        return dishRepository.findByRestaurantIdAndRestaurantDeletedAtIsNull(restaurantId)
                 .stream()
                 .map(this::toDTO)
                 .collect(Collectors.toList());
     }
+
+    // ---------- Sparse Fieldsets ----------
+    public List<Map<String, Object>> getAll(String fields) {
+        return sparseFieldsetRepository.findFields(
+                Dish.class, FieldSelection.parse(fields, SPARSE_FIELDS), ofLiveRestaurant(), "id", false
+        );
+    }
+
+    public Map<String, Object> getById(Long id, String fields) {
+        Map<String, Object> dish = sparseFieldsetRepository.findFieldsById(
+                Dish.class, FieldSelection.parse(fields, SPARSE_FIELDS), id
+        );
+        if (dish == null) {
+            throw new ResourceNotFoundException("Dish not found");
+        }
+        return dish;
+    }
+
+    public List<Map<String, Object>> getByRestaurant(Long restaurantId, String fields) {
+        return sparseFieldsetRepository.findFields(
+                Dish.class,
+                FieldSelection.parse(fields, SPARSE_FIELDS),
+                ofLiveRestaurant().and((root, query, cb) -> cb.equal(root.get("restaurant").get("id"), restaurantId)),
+                "id",
+                false
+        );
+    }
+
+    private Specification<Dish> ofLiveRestaurant() {
+        return (root, query, cb) -> cb.isNull(root.get("restaurant").get("deletedAt"));
+    }
 }
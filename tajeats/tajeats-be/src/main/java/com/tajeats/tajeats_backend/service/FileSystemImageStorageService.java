@@ -1,19 +1,36 @@
 package com.tajeats.tajeats_backend.service;
 
+import com.tajeats.tajeats_backend.exception.ValidationException;
+import com.tajeats.tajeats_backend.repository.ImageRefRepository;
+import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.List;
-import java.util.UUID;
-
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Stores uploads under the SHA-256 of their content, so re-uploading the same
+ * photo reuses the existing file. References are counted in image_refs and a
+ * file is deleted only when its last user releases it. Hash-named URLs never
+ * change content, which lets clients cache them permanently.
+ */
 @Slf4j
 @Service
 public class FileSystemImageStorageService implements ImageStorageService {
@@ -22,14 +39,24 @@ public class FileSystemImageStorageService implements ImageStorageService {
             "image/jpeg", "image/png", "image/webp"
     );
     
+    private static final Map<String, String> EXTENSIONS = Map.of(
+            "image/jpeg", ".jpg", "image/png", ".png", "image/webp", ".webp"
+    );
+
     private static final long MAX_FILE_SIZE = 5 * 1024 * 1024; // 5MB
 
+    private final ImageRefRepository imageRefRepository;
+
     @Value("${app.storage.base-path:uploads}")
     private String basePath;
 
     @Value("${app.storage.base-url:http://localhost:8080/images}")
     private String baseUrl;
 
+    public FileSystemImageStorageService(ImageRefRepository imageRefRepository) {
+        this.imageRefRepository = imageRefRepository;
+    }
+
     @Override
     public String store(MultipartFile file, String directory) {
         validateImage(file);
@@ -39,16 +66,35 @@ public class FileSystemImageStorageService implements ImageStorageService {
             Path uploadPath = Paths.get(basePath, directory);
             Files.createDirectories(uploadPath);
 
-            // Generate unique filename
-            String originalFilename = file.getOriginalFilename();
-            String extension = originalFilename != null && originalFilename.contains(".")
-                    ? originalFilename.substring(originalFilename.lastIndexOf("."))
-                    : ".jpg";
-            String filename = UUID.randomUUID().toString() + extension;
-
-            // Store file
-            Path targetLocation = uploadPath.resolve(filename);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+            // Hash while copying into a temp file beside the target, so the final rename is atomic
+            Path temp = Files.createTempFile(uploadPath, ".upload-", ".tmp");
+            String filename;
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                    Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+                }
+                filename = HexFormat.of().formatHex(digest.digest())
+                        + EXTENSIONS.get(file.getContentType().toLowerCase());
+                Path targetLocation = uploadPath.resolve(filename);
+
+                // Count the reference before the file appears, so a delete of the same content waits for us
+                String path = relativePath(targetLocation);
+                imageRefRepository.acquire(path);
+                try {
+                    if (Files.exists(targetLocation)) {
+                        log.info("Image content already stored, reusing {}", filename);
+                    } else {
+                        Files.move(temp, targetLocation, StandardCopyOption.ATOMIC_MOVE);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    // The count committed on its own; give it back or the content is never freed
+                    release(path);
+                    throw e;
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
 
             // Return public URL
             String imageUrl = String.format("%s/%s/%s", baseUrl, directory, filename);
@@ -58,29 +104,120 @@ public class FileSystemImageStorageService implements ImageStorageService {
         } catch (IOException e) {
             log.error("Failed to store image", e);
             throw new RuntimeException("Failed to store image: " + e.getMessage());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public String storeVariant(String imageUrl, String suffix, byte[] content) {
+        Path original = toPath(imageUrl);
+        if (original == null) {
+            throw new IllegalArgumentException("Not a stored image: " + imageUrl);
+        }
+        String variantName = baseName(original) + suffix;
+        try {
+            // Images sharing content share variants; replace atomically so readers never see a partial file
+            Path temp = Files.createTempFile(original.getParent(), ".variant-", ".tmp");
+            try {
+                Files.write(temp, content);
+                Files.move(temp, original.resolveSibling(variantName), StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store image variant: " + e.getMessage());
+        }
+        return imageUrl.substring(0, imageUrl.lastIndexOf('/') + 1) + variantName;
+    }
+
+    @Override
+    public InputStream open(String imageUrl) throws IOException {
+        Path filePath = toPath(imageUrl);
+        if (filePath == null) {
+            throw new IOException("Not a stored image: " + imageUrl);
+        }
+        return Files.newInputStream(filePath);
+    }
+
+    @Override
+    public void acquire(String imageUrl) {
+        Path filePath = toPath(imageUrl);
+        if (filePath == null) {
+            return;
+        }
+        if (!Files.exists(filePath)) {
+            throw new ValidationException("No stored image at " + imageUrl);
         }
+        imageRefRepository.acquire(relativePath(filePath));
     }
 
     @Override
+    @Transactional
     public void delete(String imageUrl) {
-        if (imageUrl == null || !imageUrl.startsWith(baseUrl)) {
+        Path filePath = toPath(imageUrl);
+        if (filePath == null) {
             return;
         }
 
-        try {
-            // Extract path from URL
-            String relativePath = imageUrl.substring(baseUrl.length() + 1);
-            Path filePath = Paths.get(basePath, relativePath);
+        // Shared content stays until its last user lets go; images stored before
+        // content addressing have no count and go straight away
+        if (!release(relativePath(filePath))) {
+            log.info("Image still referenced, keeping: {}", imageUrl);
+            return;
+        }
 
+        try {
             if (Files.exists(filePath)) {
                 Files.delete(filePath);
                 log.info("Image deleted: {}", imageUrl);
             }
+            // Resized variants are named <base>-<width>w.<ext>
+            try (DirectoryStream<Path> variants =
+                         Files.newDirectoryStream(filePath.getParent(), baseName(filePath) + "-*w.*")) {
+                for (Path variant : variants) {
+                    Files.deleteIfExists(variant);
+                }
+            }
         } catch (IOException e) {
             log.error("Failed to delete image: {}", imageUrl, e);
         }
     }
 
+    // Deleted dishes and restaurants let go of their images once their transaction commits
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void onImageReleased(ImageReleasedEvent event) {
+        delete(event.imageUrl());
+    }
+
+    // Drops one reference; true when the file may go (last user, or never counted)
+    private boolean release(String path) {
+        Optional<Integer> remaining = imageRefRepository.release(path);
+        return remaining.isEmpty() || (remaining.get() <= 0 && imageRefRepository.deleteIfUnused(path) > 0);
+    }
+
+    // Filesystem path of one of our URLs, or null for foreign URLs
+    private Path toPath(String imageUrl) {
+        if (imageUrl == null || !imageUrl.startsWith(baseUrl + "/")) {
+            return null;
+        }
+        Path root = Paths.get(basePath).toAbsolutePath().normalize();
+        Path filePath = root.resolve(imageUrl.substring(baseUrl.length() + 1)).normalize();
+        return filePath.startsWith(root) ? filePath : null;
+    }
+
+    private String relativePath(Path filePath) {
+        Path root = Paths.get(basePath).toAbsolutePath().normalize();
+        return root.relativize(filePath.toAbsolutePath().normalize()).toString().replace('\\', '/');
+    }
+
+    private static String baseName(Path path) {
+        String filename = path.getFileName().toString();
+        int dot = filename.lastIndexOf('.');
+        return dot > 0 ? filename.substring(0, dot) : filename;
+    }
+
     @Override
     public void validateImage(MultipartFile file) {
         if (file.isEmpty()) {
@@ -0,0 +1,32 @@
+package com.tajeats.tajeats_backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+/**
+ * Keeps image reference counts in step when an image or logo URL is written through
+ * create, PUT, PATCH or the menu import rather than the upload endpoints. The new URL
+ * is counted inside the writing transaction; the old one is released after commit.
+ */
+@Component
+@RequiredArgsConstructor
+public class ImageReferences {
+
+    private final ImageStorageService imageStorageService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public void replaced(String previous, String next) {
+        if (Objects.equals(previous, next)) {
+            return;
+        }
+        if (next != null) {
+            imageStorageService.acquire(next);
+        }
+        if (previous != null) {
+            eventPublisher.publishEvent(new ImageReleasedEvent(previous));
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.tajeats.tajeats_backend.service;
+
+/**
+ * Published when a deleted dish or restaurant gives up a stored image.
+ */
+public record ImageReleasedEvent(String imageUrl) {
+}
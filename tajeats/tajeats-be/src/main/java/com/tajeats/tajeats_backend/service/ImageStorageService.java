@@ -2,6 +2,9 @@ package com.tajeats.tajeats_backend.service;
 
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 /**
  * Abstraction for image storage.
  * Allows switching between filesystem, S3, MinIO without changing business logic.
@@ -17,7 +20,30 @@ public interface ImageStorageService {
     String store(MultipartFile file, String directory);
     
     /**
-     * Delete an image by its filename.
+     * Store a derived rendition (e.g. a resized copy) next to an image.
+     * @param imageUrl URL of the image it was derived from
+     * @param suffix Name suffix including the extension (e.g. "-480w.jpg")
+     * @param content Encoded image bytes
+     * @return Public URL of the rendition
+     */
+    String storeVariant(String imageUrl, String suffix, byte[] content);
+
+    /**
+     * Open a stored image for reading.
+     * @param imageUrl The URL returned by store
+     */
+    InputStream open(String imageUrl) throws IOException;
+    
+    /**
+     * Count one more user of an image that was stored earlier, e.g. when its URL is
+     * copied onto another dish. Foreign URLs are ignored.
+     * @param imageUrl The URL returned by store
+     * @throws com.tajeats.tajeats_backend.exception.ValidationException if the URL is ours but nothing is stored there
+     */
+    void acquire(String imageUrl);
+
+    /**
+     * Delete an image by its filename, together with its stored variants.
      * @param imageUrl The URL/path of the image to delete
      */
     void delete(String imageUrl);
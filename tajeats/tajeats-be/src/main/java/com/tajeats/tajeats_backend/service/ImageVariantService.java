@@ -0,0 +1,264 @@
+package com.tajeats.tajeats_backend.service;
+
+import com.tajeats.tajeats_backend.repository.DishRepository;
+import com.tajeats.tajeats_backend.repository.RestaurantRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Renders fixed-width copies of uploaded restaurant and dish photos off the request
+ * thread and records them as srcset strings, so listings fetch a thumbnail instead
+ * of the full upload. The original stays the {@code image} fallback; if the pool is
+ * saturated or decoding fails, that is all clients get.
+ *
+ * JPEG variants always; WebP too when the ImageIO WebP writer (webp-imageio) loaded,
+ * which needs its bundled native libwebp for the host platform. Uploads larger than
+ * {@code app.images.max-pixels} are never decoded.
+ */
+@Slf4j
+@Service
+public class ImageVariantService {
+
+    private final ImageStorageService imageStorageService;
+    private final RestaurantRepository restaurantRepository;
+    private final DishRepository dishRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter skipped;
+
+    @Value("${app.images.variant-widths:160,480,1080}")
+    private List<Integer> widths;
+
+    @Value("${app.images.jpeg-quality:0.82}")
+    private float jpegQuality;
+
+    @Value("${app.images.webp-quality:0.8}")
+    private float webpQuality;
+
+    // Checked from the header before decoding; a decoded image costs 4 bytes per pixel
+    @Value("${app.images.max-pixels:40000000}")
+    private long maxPixels;
+
+    @Value("${app.images.workers:2}")
+    private int workers;
+
+    @Value("${app.images.queue-capacity:100}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+    private boolean webpSupported;
+
+    private record Rendered(String srcset, String webpSrcset) {
+    }
+
+    public ImageVariantService(
+            ImageStorageService imageStorageService,
+            RestaurantRepository restaurantRepository,
+            DishRepository dishRepository,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry
+    ) {
+        this.imageStorageService = imageStorageService;
+        this.restaurantRepository = restaurantRepository;
+        this.dishRepository = dishRepository;
+        this.eventPublisher = eventPublisher;
+        this.skipped = Counter.builder("tajeats.images.variants.skipped")
+                .description("Uploads left without resized variants because the pool was full")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threadIds = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-variants-" + threadIds.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        webpSupported = ImageIO.getImageWritersByMIMEType("image/webp").hasNext();
+        if (!webpSupported) {
+            log.warn("No ImageIO WebP writer available (libwebp missing for this platform?), generating JPEG variants only");
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+    }
+
+    // ---------- Entry points ----------
+    public void generateForRestaurant(Long restaurantId, String imageUrl) {
+        submit(imageUrl, rendered -> {
+            if (restaurantRepository.updateImageSrcset(
+                    restaurantId, imageUrl, rendered.srcset(), rendered.webpSrcset()) > 0) {
+                eventPublisher.publishEvent(new RestaurantChangedEvent(restaurantId));
+            }
+        });
+    }
+
+    public void generateForDish(Long dishId, Long restaurantId, String imageUrl) {
+        submit(imageUrl, rendered -> {
+            if (dishRepository.updateImageSrcset(dishId, imageUrl, rendered.srcset(), rendered.webpSrcset()) > 0) {
+                eventPublisher.publishEvent(new MenuChangedEvent(restaurantId));
+            }
+        });
+    }
+
+    private void submit(String imageUrl, Consumer<Rendered> onDone) {
+        try {
+            executor.execute(() -> {
+                try {
+                    Rendered rendered = render(imageUrl);
+                    if (rendered != null) {
+                        onDone.accept(rendered);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Failed to generate variants for {}", imageUrl, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            skipped.increment();
+            log.warn("Image variant queue full, serving {} without variants", imageUrl);
+        }
+    }
+
+    // ---------- Rendering ----------
+    private Rendered render(String imageUrl) throws IOException {
+        BufferedImage original = decode(imageUrl);
+        if (original == null) {
+            return null;
+        }
+
+        List<String> jpeg = new ArrayList<>();
+        List<String> webp = new ArrayList<>();
+        for (int width : widths) {
+            if (width >= original.getWidth()) {
+                continue; // never upscale
+            }
+            BufferedImage resized = resize(original, width);
+            jpeg.add(imageStorageService.storeVariant(imageUrl, "-" + width + "w.jpg", encodeJpeg(resized))
+                    + " " + width + "w");
+            if (webpSupported) {
+                webp.add(imageStorageService.storeVariant(imageUrl, "-" + width + "w.webp", encode(resized, "image/webp", webpQuality))
+                        + " " + width + "w");
+            }
+        }
+
+        // The original closes the set for the widest screens
+        String originalEntry = imageUrl + " " + original.getWidth() + "w";
+        jpeg.add(originalEntry);
+        return new Rendered(String.join(", ", jpeg), webp.isEmpty() ? null : String.join(", ", webp));
+    }
+
+    private BufferedImage decode(String imageUrl) throws IOException {
+        try (InputStream in = imageStorageService.open(imageUrl);
+             ImageInputStream stream = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = stream != null ? ImageIO.getImageReaders(stream) : null;
+            if (readers == null || !readers.hasNext()) {
+                log.info("Cannot decode {}, keeping the original only", imageUrl);
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(stream, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    log.warn("Skipping variants for {}, {} pixels is over the {} limit", imageUrl, pixels, maxPixels);
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Halve repeatedly before the final step so large downscales stay sharp
+    private static BufferedImage resize(BufferedImage source, int width) {
+        BufferedImage current = source;
+        while (current.getWidth() / 2 >= width) {
+            current = draw(current, current.getWidth() / 2);
+        }
+        return draw(current, width);
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width) {
+        int height = Math.max(1, Math.round((float) source.getHeight() * width / source.getWidth()));
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            // JPEG has no alpha; flatten transparent PNGs onto white
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        return encode(image, "image/jpeg", jpegQuality);
+    }
+
+    private static byte[] encode(BufferedImage image, String mimeType, Float quality) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByMIMEType(mimeType);
+        if (!writers.hasNext()) {
+            throw new IOException("No ImageIO writer for " + mimeType);
+        }
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (quality != null && param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                if (param.getCompressionTypes() != null) {
+                    // WebP offers Lossy and Lossless and requires a choice before a quality
+                    param.setCompressionType(param.getCompressionTypes()[0]);
+                }
+                param.setCompressionQuality(quality);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,182 @@
+package com.tajeats.tajeats_backend.service;
+
+import com.tajeats.tajeats_backend.exception.ValidationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Session carts in an access-ordered map, the default {@link CartStore} and the local stand-in
+ * for a shared backend. Carts expire after {@code app.cart.ttl-minutes} without activity,
+ * and both the number of carts and the lines per cart are bounded; at the bound the least
+ * recently used cart is dropped in constant time.
+ *
+ * Every operation runs under one lock. Each is a few map operations, and holding the lock
+ * while mutating a cart means no write can land in a cart that was just evicted or cleared.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.cart.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryCartStore implements CartStore {
+
+    private final AtomicLong lineIds = new AtomicLong();
+
+    @Value("${app.cart.ttl-minutes:1440}")
+    private long ttlMinutes;
+
+    @Value("${app.cart.max-sessions:100000}")
+    private int maxSessions;
+
+    @Value("${app.cart.max-lines:50}")
+    private int maxLines;
+
+    // Guarded by itself; iteration order is least recently used first
+    private final LinkedHashMap<String, SessionCart> carts = new LinkedHashMap<>(1024, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, SessionCart> eldest) {
+            return size() > maxSessions;
+        }
+    };
+
+    // Lines are keyed by dish id
+    private static final class SessionCart {
+        final Map<Long, CartLine> lines = new LinkedHashMap<>();
+        long lastTouched = System.currentTimeMillis();
+    }
+
+    // ---------- Read ----------
+    @Override
+    public List<CartLine> getLines(String sessionId) {
+        synchronized (carts) {
+            SessionCart cart = live(sessionId);
+            return cart != null ? List.copyOf(cart.lines.values()) : List.of();
+        }
+    }
+
+    // ---------- Write ----------
+    @Override
+    public CartLine add(String sessionId, Long dishId, int quantity) {
+        synchronized (carts) {
+            SessionCart cart = live(sessionId);
+            CartLine existing = cart != null ? cart.lines.get(dishId) : null;
+            if (existing == null && cart != null && cart.lines.size() >= maxLines) {
+                throw new ValidationException("A cart can hold at most " + maxLines + " different dishes");
+            }
+            if (cart == null) {
+                cart = new SessionCart();
+                carts.put(sessionId, cart);
+            }
+            CartLine line = existing != null
+                    ? new CartLine(existing.id(), dishId, existing.quantity() + quantity)
+                    : new CartLine(lineIds.incrementAndGet(), dishId, quantity);
+            cart.lines.put(dishId, line);
+            return line;
+        }
+    }
+
+    @Override
+    public Optional<CartLine> setQuantity(String sessionId, Long lineId, int quantity) {
+        synchronized (carts) {
+            SessionCart cart = live(sessionId);
+            if (cart == null) {
+                return Optional.empty();
+            }
+            for (CartLine line : cart.lines.values()) {
+                if (line.id().equals(lineId)) {
+                    CartLine updated = new CartLine(lineId, line.dishId(), quantity);
+                    cart.lines.put(line.dishId(), updated);
+                    return Optional.of(updated);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public boolean remove(String sessionId, Long lineId) {
+        synchronized (carts) {
+            SessionCart cart = live(sessionId);
+            return cart != null && cart.lines.values().removeIf(line -> line.id().equals(lineId));
+        }
+    }
+
+    @Override
+    public void clear(String sessionId) {
+        synchronized (carts) {
+            carts.remove(sessionId);
+        }
+    }
+
+    @Override
+    public List<CartLine> takeForCheckout(String sessionId) {
+        SessionCart cart;
+        synchronized (carts) {
+            cart = live(sessionId);
+            if (cart == null) {
+                return List.of();
+            }
+            carts.remove(sessionId);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        synchronized (carts) {
+                            carts.putIfAbsent(sessionId, cart);
+                        }
+                    }
+                }
+            });
+        }
+        // Detached from the map, so no other request can change it any more
+        return List.copyOf(cart.lines.values());
+    }
+
+    // ---------- Expiry ----------
+    // Expired carts sit at the head of the access order, so the sweep stops at the first live one
+    @Scheduled(fixedDelayString = "${app.cart.sweep.interval-ms:300000}")
+    public void evictExpired() {
+        long cutoff = System.currentTimeMillis() - ttlMillis();
+        int evicted = 0;
+        synchronized (carts) {
+            Iterator<SessionCart> oldestFirst = carts.values().iterator();
+            while (oldestFirst.hasNext() && oldestFirst.next().lastTouched < cutoff) {
+                oldestFirst.remove();
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            log.debug("Evicted {} expired session carts", evicted);
+        }
+    }
+
+    // Caller holds the lock; the get also moves the cart to the most recently used end
+    private SessionCart live(String sessionId) {
+        SessionCart cart = carts.get(sessionId);
+        long now = System.currentTimeMillis();
+        if (cart != null && cart.lastTouched < now - ttlMillis()) {
+            carts.remove(sessionId);
+            return null;
+        }
+        if (cart != null) {
+            cart.lastTouched = now;
+        }
+        return cart;
+    }
+
+    private long ttlMillis() {
+        return ttlMinutes * 60_000L;
+    }
+}
@@ -0,0 +1,111 @@
+package com.tajeats.tajeats_backend.service;
+
+import com.tajeats.tajeats_backend.exception.InvalidCredentialsException;
+import com.tajeats.tajeats_backend.exception.ServiceUnavailableException;
+import com.tajeats.tajeats_backend.security.LoginAttemptThrottle;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs password verification on a small dedicated pool so BCrypt work never
+ * holds Tomcat request threads. When the pool's queue is full, logins fail
+ * fast with 503. Throttled accounts and IPs are refused before any hashing.
+ */
+@Service
+public class LoginService {
+
+    private final UserService userService;
+    private final LoginAttemptThrottle throttle;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejected;
+
+    @Value("${app.auth.login.threads:4}")
+    private int threads;
+
+    @Value("${app.auth.login.queue-capacity:200}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    public LoginService(UserService userService, LoginAttemptThrottle throttle, MeterRegistry meterRegistry) {
+        this.userService = userService;
+        this.throttle = throttle;
+        this.meterRegistry = meterRegistry;
+        this.rejected = Counter.builder("tajeats.auth.login.rejected")
+                .description("Logins refused because the verification queue was full")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threadIds = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "login-" + threadIds.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        Gauge.builder("tajeats.auth.login.queued", executor, e -> e.getQueue().size())
+                .description("Logins waiting for password verification")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+    }
+
+    /** @throws com.tajeats.tajeats_backend.exception.TooManyRequestsException when throttled */
+    public void checkAllowed(String email, String clientIp) {
+        throttle.check(email, clientIp);
+    }
+
+    /**
+     * Verify the credentials off the request thread; call checkAllowed first.
+     * @return The issued tokens, or a future failed with InvalidCredentialsException
+     * @throws ServiceUnavailableException when too many logins are already waiting
+     */
+    public CompletableFuture<AuthTokens> authenticate(String email, String password, String clientIp) {
+        CompletableFuture<AuthTokens> tokens;
+        try {
+            tokens = CompletableFuture.supplyAsync(() -> userService.authenticate(email, password), executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Too many logins in progress, try again shortly");
+        }
+
+        return tokens.whenComplete((issued, error) -> {
+            if (issued != null) {
+                throttle.recordSuccess(email);
+            } else if (unwrap(error) instanceof InvalidCredentialsException) {
+                throttle.recordFailure(email, clientIp);
+            }
+        });
+    }
+
+    /** Count a failure decided before hashing, such as an unknown email. */
+    public void recordFailure(String email, String clientIp) {
+        throttle.recordFailure(email, clientIp);
+    }
+
+    public static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
@@ -0,0 +1,13 @@
+package com.tajeats.tajeats_backend.service;
+
+/**
+ * Published whenever the dishes of a restaurant change, so derived
+ * read models (menu snapshots, caches) can refresh after commit.
+ * {@code availabilityOnly} marks a sold-out toggle that left the set of dishes as it was.
+ */
+public record MenuChangedEvent(Long restaurantId, boolean availabilityOnly) {
+
+    public MenuChangedEvent(Long restaurantId) {
+        this(restaurantId, false);
+    }
+}
@@ -0,0 +1,322 @@
+package com.tajeats.tajeats_backend.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tajeats.tajeats_backend.dto.DishDTO;
+import com.tajeats.tajeats_backend.dto.MenuImportResultDTO;
+import com.tajeats.tajeats_backend.dto.MenuImportResultDTO.RowError;
+import com.tajeats.tajeats_backend.exception.ResourceNotFoundException;
+import com.tajeats.tajeats_backend.exception.ValidationException;
+import com.tajeats.tajeats_backend.repository.RestaurantRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Imports a whole menu from CSV or a JSON array in one transaction.
+ * Rows are streamed and validated one at a time and written with JDBC batch
+ * inserts; invalid rows are skipped and reported with their row number.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MenuImportService {
+
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_ROWS = 10_000;
+    private static final int MAX_REPORTED_ERRORS = 200;
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private static final String INSERT_DISH = "INSERT INTO dishes "
+            + "(restaurant_id, name, description, price, image, category, is_available, is_popular, version) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private final RestaurantRepository restaurantRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ImageReferences imageReferences;
+
+    @Transactional
+    public MenuImportResultDTO importCsv(Long restaurantId, InputStream body) {
+        ImportRun run = start(restaurantId);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            CsvReader csv = new CsvReader(reader);
+            List<String> names = csv.next();
+            if (names == null) {
+                throw new ValidationException("CSV is empty, expected a header row");
+            }
+            Map<String, Integer> header = new HashMap<>();
+            for (int i = 0; i < names.size(); i++) {
+                // Spreadsheet exports often start with a byte order mark
+                String name = i == 0 && names.get(0).startsWith("\uFEFF") ? names.get(0).substring(1) : names.get(i);
+                header.put(name.trim().toLowerCase(Locale.ROOT), i);
+            }
+            if (!header.containsKey("name") || !header.containsKey("price")) {
+                throw new ValidationException("CSV header must contain at least 'name' and 'price'");
+            }
+
+            List<String> values;
+            while ((values = csv.next()) != null) {
+                if (values.size() == 1 && values.get(0).isBlank()) {
+                    continue;
+                }
+                int row = run.nextRow();
+                try {
+                    run.accept(row, fromCsv(values, header));
+                } catch (IllegalArgumentException e) {
+                    run.reject(row, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new ValidationException("Failed to read CSV: " + e.getMessage());
+        }
+        return run.finish();
+    }
+
+    @Transactional
+    public MenuImportResultDTO importJson(Long restaurantId, InputStream body) {
+        ImportRun run = start(restaurantId);
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ValidationException("Expected a JSON array of dishes");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new ValidationException("JSON array is not closed");
+                }
+                int row = run.nextRow();
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    run.reject(row, "expected a dish object");
+                    continue;
+                }
+                // Read the whole element first so a bad value cannot leave the parser mid-object
+                JsonNode element = parser.readValueAsTree();
+                try {
+                    run.accept(row, objectMapper.treeToValue(element, DishDTO.class));
+                } catch (IllegalArgumentException | JsonMappingException e) {
+                    run.reject(row, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new ValidationException("Failed to read JSON: " + e.getMessage());
+        }
+        return run.finish();
+    }
+
+    private ImportRun start(Long restaurantId) {
+        // Resolved once for the whole menu
+        if (restaurantRepository.findByIdAndDeletedAtIsNull(restaurantId).isEmpty()) {
+            throw new ResourceNotFoundException("Restaurant not found");
+        }
+        return new ImportRun(restaurantId);
+    }
+
+    // ---------- Import state ----------
+    private class ImportRun {
+
+        private final Long restaurantId;
+        private final List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        private final List<RowError> errors = new ArrayList<>();
+        private int rows;
+        private int imported;
+        private int rejected;
+
+        ImportRun(Long restaurantId) {
+            this.restaurantId = restaurantId;
+        }
+
+        int nextRow() {
+            if (++rows > MAX_ROWS) {
+                throw new ValidationException("Menu import is limited to " + MAX_ROWS + " rows");
+            }
+            return rows;
+        }
+
+        void accept(int row, DishDTO dish) {
+            validate(dish);
+            try {
+                // Rolled back with the import if it fails later
+                imageReferences.replaced(null, dish.getImage());
+            } catch (ValidationException e) {
+                throw new IllegalArgumentException(e.getMessage());
+            }
+            batch.add(new Object[]{
+                    restaurantId,
+                    dish.getName().trim(),
+                    dish.getDescription(),
+                    dish.getPrice(),
+                    dish.getImage(),
+                    dish.getCategory(),
+                    dish.getIsAvailable() != null ? dish.getIsAvailable() : Boolean.TRUE,
+                    dish.getIsPopular() != null ? dish.getIsPopular() : Boolean.FALSE
+            });
+            if (batch.size() == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void reject(int row, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new RowError(row, message));
+            }
+        }
+
+        MenuImportResultDTO finish() {
+            flush();
+            if (imported > 0) {
+                eventPublisher.publishEvent(new MenuChangedEvent(restaurantId));
+            }
+            log.info("Imported {} dishes for restaurant {} ({} rejected)", imported, restaurantId, rejected);
+            return new MenuImportResultDTO(restaurantId, imported, rejected, errors);
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            jdbcTemplate.batchUpdate(INSERT_DISH, batch);
+            imported += batch.size();
+            batch.clear();
+        }
+    }
+
+    // ---------- Row parsing & validation ----------
+    private void validate(DishDTO dish) {
+        if (dish.getName() == null || dish.getName().isBlank()) {
+            throw new IllegalArgumentException("name is required");
+        }
+        if (dish.getName().length() > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException("name is longer than " + MAX_TEXT_LENGTH + " characters");
+        }
+        if (dish.getCategory() != null && dish.getCategory().length() > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException("category is longer than " + MAX_TEXT_LENGTH + " characters");
+        }
+        if (dish.getPrice() == null) {
+            throw new IllegalArgumentException("price is required");
+        }
+        if (dish.getPrice().signum() < 0) {
+            throw new IllegalArgumentException("price must not be negative");
+        }
+        if (dish.getPrice().scale() > 2) {
+            throw new IllegalArgumentException("price must have at most 2 decimals");
+        }
+    }
+
+    private DishDTO fromCsv(List<String> values, Map<String, Integer> header) {
+        DishDTO dish = new DishDTO();
+        dish.setName(column(values, header, "name"));
+        dish.setDescription(column(values, header, "description"));
+        dish.setCategory(column(values, header, "category"));
+        dish.setImage(column(values, header, "image"));
+
+        String price = column(values, header, "price");
+        if (price != null) {
+            try {
+                dish.setPrice(new BigDecimal(price.trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("price '" + price + "' is not a number");
+            }
+        }
+        dish.setIsAvailable(parseBoolean(column(values, header, "isavailable")));
+        dish.setIsPopular(parseBoolean(column(values, header, "ispopular")));
+        return dish;
+    }
+
+    private String column(List<String> values, Map<String, Integer> header, String name) {
+        Integer index = header.get(name);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    private Boolean parseBoolean(String value) {
+        if (value == null) {
+            return null;
+        }
+        return switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "true", "yes", "1" -> true;
+            case "false", "no", "0" -> false;
+            default -> throw new IllegalArgumentException("'" + value + "' is not a boolean");
+        };
+    }
+
+    /**
+     * RFC 4180 style records: comma separated, double quotes escape commas, line breaks
+     * and "" escapes a quote. Records end at an unquoted LF or CRLF.
+     */
+    private static final class CsvReader {
+
+        private final Reader reader;
+        private int record;
+
+        CsvReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        // The next record's values, or null at the end of input
+        List<String> next() throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            record++;
+            List<String> values = new ArrayList<>();
+            StringBuilder current = new StringBuilder();
+            boolean quoted = false;
+            for (; c != -1; c = reader.read()) {
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        if (reader.read() == '"') {
+                            current.append('"');
+                        } else {
+                            reader.reset();
+                            quoted = false;
+                        }
+                    } else {
+                        current.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    values.add(current.toString());
+                    current.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    current.append((char) c);
+                }
+            }
+            if (quoted) {
+                throw new ValidationException("Unterminated quoted field in CSV record " + record);
+            }
+            values.add(current.toString());
+            return values;
+        }
+    }
+}
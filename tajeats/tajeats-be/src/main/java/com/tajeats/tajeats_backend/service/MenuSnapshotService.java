@@ -0,0 +1,129 @@
+package com.tajeats.tajeats_backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tajeats.tajeats_backend.dto.DishDTO;
+import com.tajeats.tajeats_backend.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pre-serialized menus per restaurant. Each snapshot holds the JSON of the dish list
+ * both as identity and gzip bytes, so a menu read is a map lookup and a byte copy.
+ * Snapshots are rebuilt after every committed dish write. Only restaurants that
+ * exist get a cached snapshot; unknown or deleted ones are served an empty menu.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MenuSnapshotService {
+
+    private final DishService dishService;
+    private final CatalogCache catalogCache;
+    private final ObjectMapper objectMapper;
+
+    private final Map<Long, MenuSnapshot> snapshots = new ConcurrentHashMap<>();
+    // Bumped on every change; a rebuild only lands if no newer change happened meanwhile
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+    private final AtomicLong versionSequence = new AtomicLong();
+
+    /**
+     * Immutable serialized menu. The byte arrays must not be modified by callers.
+     */
+    public record MenuSnapshot(long version, String etag, byte[] identity, byte[] gzip) {
+    }
+
+    public MenuSnapshot get(Long restaurantId) {
+        MenuSnapshot snapshot = snapshots.get(restaurantId);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        // Checked before anything is cached, so arbitrary ids cannot grow the maps
+        try {
+            catalogCache.getRestaurant(restaurantId);
+        } catch (ResourceNotFoundException e) {
+            return serialize(restaurantId, 0, List.of());
+        }
+        return rebuild(restaurantId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        versions.put(event.restaurantId(), versionSequence.incrementAndGet());
+        snapshots.remove(event.restaurantId());
+        try {
+            rebuild(event.restaurantId());
+        } catch (RuntimeException e) {
+            // The write is already committed; the next read rebuilds the snapshot
+            log.error("Failed to rebuild menu snapshot for restaurant {}", event.restaurantId(), e);
+        }
+    }
+
+    // Deleted restaurants must stop serving their menu
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        versions.put(event.restaurantId(), versionSequence.incrementAndGet());
+        snapshots.remove(event.restaurantId());
+    }
+
+    // ---------- Build ----------
+    private MenuSnapshot rebuild(Long restaurantId) {
+        long version = versions.computeIfAbsent(restaurantId, id -> versionSequence.incrementAndGet());
+        MenuSnapshot built = build(restaurantId, version);
+
+        // Only store the result if no other write bumped the version while we were reading;
+        // the caller still gets it, as it reflects the menu at the time of the request
+        MenuSnapshot stored = snapshots.compute(restaurantId, (id, current) ->
+                Objects.equals(versions.get(id), version) ? built : current
+        );
+        return stored != null ? stored : built;
+    }
+
+    private MenuSnapshot build(Long restaurantId, long version) {
+        return serialize(restaurantId, version, dishService.getByRestaurant(restaurantId));
+    }
+
+    private MenuSnapshot serialize(Long restaurantId, long version, List<DishDTO> dishes) {
+        try {
+            byte[] identity = objectMapper.writeValueAsBytes(dishes);
+            return new MenuSnapshot(version, etag(restaurantId, identity), identity, gzip(identity));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize menu of restaurant " + restaurantId, e);
+        }
+    }
+
+    // Content based so ETags stay valid across restarts and nodes
+    private String etag(Long restaurantId, byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return "\"m" + restaurantId + "-" + HexFormat.of().formatHex(digest, 0, 8) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private byte[] gzip(byte[] content) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,11 @@
+package com.tajeats.tajeats_backend.service;
+
+import com.tajeats.tajeats_backend.service.CartPricingService.PricedLine;
+
+import java.util.List;
+
+/**
+ * Published when an order and its line items have been written.
+ */
+public record OrderPlacedEvent(Long orderId, Long restaurantId, List<PricedLine> lines) {
+}
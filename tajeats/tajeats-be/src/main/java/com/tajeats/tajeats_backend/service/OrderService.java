@@ -1,41 +1,77 @@
 package com.tajeats.tajeats_backend.service;
 
-import com.tajeats.tajeats_backend.dto.CartItemDTO;
 import com.tajeats.tajeats_backend.dto.OrderDTO;
+import com.tajeats.tajeats_backend.dto.OrderItemDTO;
 import com.tajeats.tajeats_backend.exception.ResourceNotFoundException;
-import com.tajeats.tajeats_backend.model.CartItem;
-import com.tajeats.tajeats_backend.model.Dish;
+import com.tajeats.tajeats_backend.exception.ValidationException;
 import com.tajeats.tajeats_backend.model.Order;
-import com.tajeats.tajeats_backend.model.Restaurant;
-import com.tajeats.tajeats_backend.repository.CartItemRepository;
-import com.tajeats.tajeats_backend.repository.DishRepository;
 import com.tajeats.tajeats_backend.repository.OrderRepository;
 import com.tajeats.tajeats_backend.repository.RestaurantRepository;
+import com.tajeats.tajeats_backend.repository.SparseFieldsetRepository;
+import com.tajeats.tajeats_backend.service.CartPricingService.LineRequest;
+import com.tajeats.tajeats_backend.service.CartPricingService.PricedLine;
+import com.tajeats.tajeats_backend.service.CartPricingService.Quote;
+import com.tajeats.tajeats_backend.util.Cents;
+import com.tajeats.tajeats_backend.util.FieldSelection;
+import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 public class OrderService {
 
+    // Fields selectable via ?fields= (DTO property -> entity path); line items are not projectable
+    private static final Map<String, String> SPARSE_FIELDS = new LinkedHashMap<>();
+
+    static {
+        SPARSE_FIELDS.put("id", "id");
+        SPARSE_FIELDS.put("restaurantId", "restaurant.id");
+        SPARSE_FIELDS.putAll(FieldSelection.identity(
+                "restaurantName", "customerName", "customerPhone", "customerAddress", "total",
+                "status", "deliveryType", "createdAt", "estimatedDelivery"
+        ));
+    }
+
+    private static final String INSERT_ORDER_ITEM =
+            "INSERT INTO order_items (order_id, dish_id, dish_name, unit_price, quantity) VALUES (?, ?, ?, ?, ?)";
+
+    private static final List<String> ACTIVE_STATUSES = List.of("placed", "approved", "preparing", "on-the-way");
+    private static final List<String> ACTIVE_DELIVERY_STATUSES = List.of("approved", "on-the-way");
+
     private final OrderRepository orderRepository;
     private final RestaurantRepository restaurantRepository;
-    private final CartItemRepository cartItemRepository;
-    private final DishRepository dishRepository;
+    private final SparseFieldsetRepository sparseFieldsetRepository;
+    private final CartPricingService cartPricingService;
+    private final CartStore cartStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
     public OrderService(
             OrderRepository orderRepository,
             RestaurantRepository restaurantRepository,
-            CartItemRepository cartItemRepository,
-            DishRepository dishRepository
+            SparseFieldsetRepository sparseFieldsetRepository,
+            CartPricingService cartPricingService,
+            CartStore cartStore,
+            JdbcTemplate jdbcTemplate,
+            ApplicationEventPublisher eventPublisher
     ) {
         this.orderRepository = orderRepository;
         this.restaurantRepository = restaurantRepository;
-        this.cartItemRepository = cartItemRepository;
-        this.dishRepository = dishRepository;
+        this.sparseFieldsetRepository = sparseFieldsetRepository;
+        this.cartPricingService = cartPricingService;
+        this.cartStore = cartStore;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
     }
 
     // --------------------------- GET ALL --------------------------
@@ -53,42 +89,97 @@ public class OrderService {
     }
 
     // --------------------------- CREATE ----------------------------
+    @Transactional
     public OrderDTO create(OrderDTO dto) {
 
-        Restaurant restaurant = restaurantRepository.findById(dto.getRestaurantId())
-                .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found"));
+        if (dto.getRestaurantId() == null) {
+            throw new ValidationException("Restaurant is required");
+        }
+        String deliveryType = dto.getDeliveryType() != null ? dto.getDeliveryType() : "DELIVERY";
+
+        List<LineRequest> requests = new ArrayList<>();
+        if (dto.getItems() != null) {
+            for (OrderItemDTO itemDTO : dto.getItems()) {
+                if (itemDTO.getQuantity() == null || itemDTO.getQuantity() < 1) {
+                    throw new ValidationException("Quantity must be at least 1");
+                }
+                requests.add(new LineRequest(null, itemDTO.getDishId(), itemDTO.getQuantity()));
+            }
+        }
+
+        // Prices, fees and the open/min-order checks come from the server, never from the client total
+        Quote quote = cartPricingService.quote(dto.getRestaurantId(), requests, deliveryType);
+        if (!quote.checkoutAllowed()) {
+            throw new ValidationException(String.join("; ", quote.problems()));
+        }
+
+        return place(quote, dto, deliveryType);
+    }
+
+    // --------------------------- CHECKOUT --------------------------
+    /**
+     * Turn a session cart into an order in one transaction. The cart is taken atomically,
+     * priced on the server and its lines copied into order_items in one batch; if anything
+     * fails the cart is left as it was.
+     */
+    @Transactional
+    public OrderDTO checkout(String sessionId, OrderDTO dto) {
+        if (sessionId == null || sessionId.isBlank()) {
+            throw new ValidationException("Session id is required");
+        }
+        String deliveryType = dto.getDeliveryType() != null ? dto.getDeliveryType() : "DELIVERY";
+
+        List<LineRequest> requests = cartStore.takeForCheckout(sessionId).stream()
+                .map(line -> new LineRequest(line.id(), line.dishId(), line.quantity()))
+                .collect(Collectors.toList());
+
+        Quote quote = cartPricingService.quote(dto.getRestaurantId(), requests, deliveryType);
+        if (!quote.checkoutAllowed()) {
+            throw new ValidationException(String.join("; ", quote.problems()));
+        }
+
+        return place(quote, dto, deliveryType);
+    }
+
+    private OrderDTO place(Quote quote, OrderDTO dto, String deliveryType) {
+        Long restaurantId = quote.restaurant().getId();
 
         Order order = new Order();
-        order.setRestaurant(restaurant);
-        order.setRestaurantName(restaurant.getName());
+        order.setRestaurant(restaurantRepository.getReferenceById(restaurantId));
+        order.setRestaurantName(quote.restaurant().getName());
         order.setCustomerName(dto.getCustomerName());
         order.setCustomerPhone(dto.getCustomerPhone());
         order.setCustomerAddress(dto.getCustomerAddress());
-        order.setTotal(dto.getTotal());
+        order.setTotal(Cents.toAmount(quote.totalCents()));
         order.setStatus("placed");
-        order.setDeliveryType(dto.getDeliveryType() != null ? dto.getDeliveryType() : "DELIVERY");
+        order.setDeliveryType(deliveryType);
         order.setCreatedAt(Timestamp.valueOf(LocalDateTime.now()));
         order.setEstimatedDelivery(Timestamp.valueOf(LocalDateTime.now().plusMinutes(40)));
 
         order = orderRepository.save(order);
 
-        // Save cart items
-        if (dto.getItems() != null) {
-            for (CartItemDTO itemDTO : dto.getItems()) {
-                CartItem item = new CartItem();
-                item.setOrder(order);
-
-                Dish dish = dishRepository.findById(itemDTO.getDishId())
-                        .orElseThrow(() -> new ResourceNotFoundException("Dish not found"));
-
-                item.setDish(dish);
-                item.setQuantity(itemDTO.getQuantity());
-
-                cartItemRepository.save(item);
-            }
+        // Name and price are snapshotted onto the order; one batch, sent as a multi-row INSERT
+        List<Object[]> rows = new ArrayList<>(quote.lines().size());
+        for (PricedLine line : quote.lines()) {
+            rows.add(new Object[]{
+                    order.getId(), line.dishId(), line.dishName(), Cents.toAmount(line.unitPriceCents()), line.quantity()
+            });
         }
+        jdbcTemplate.batchUpdate(INSERT_ORDER_ITEM, rows);
+
+        // Popularity only counts the order once it has committed
+        eventPublisher.publishEvent(new OrderPlacedEvent(order.getId(), restaurantId, quote.lines()));
 
-        return toDTO(orderRepository.findById(order.getId()).get());
+        OrderDTO placed = toDTO(order);
+        placed.setItems(quote.lines().stream().map(line -> {
+            OrderItemDTO itemDTO = new OrderItemDTO();
+            itemDTO.setDishId(line.dishId());
+            itemDTO.setDishName(line.dishName());
+            itemDTO.setUnitPrice(Cents.toAmount(line.unitPriceCents()));
+            itemDTO.setQuantity(line.quantity());
+            return itemDTO;
+        }).collect(Collectors.toList()));
+        return placed;
     }
 
     // --------------------------- UPDATE ----------------------------
@@ -138,6 +229,50 @@ public class OrderService {
         return toDTO(orderRepository.save(order));
     }
 
+    // ------------------------ SPARSE FIELDSETS ---------------------
+    public List<Map<String, Object>> getAll(String fields) {
+        return sparseFieldsetRepository.findFields(
+                Order.class, FieldSelection.parse(fields, SPARSE_FIELDS), null, "id", false
+        );
+    }
+
+    public Map<String, Object> getById(Long id, String fields) {
+        Map<String, Object> order = sparseFieldsetRepository.findFieldsById(
+                Order.class, FieldSelection.parse(fields, SPARSE_FIELDS), id
+        );
+        if (order == null) {
+            throw new ResourceNotFoundException("Order not found");
+        }
+        return order;
+    }
+
+    public List<Map<String, Object>> getByRestaurant(Long restaurantId, String fields) {
+        return findOrderFields(fields, byRestaurant(restaurantId));
+    }
+
+    public List<Map<String, Object>> getActiveByRestaurant(Long restaurantId, String fields) {
+        Specification<Order> active = (root, query, cb) -> root.get("status").in(ACTIVE_STATUSES);
+        return findOrderFields(fields, byRestaurant(restaurantId).and(active));
+    }
+
+    public List<Map<String, Object>> getActiveDeliveryByRestaurant(Long restaurantId, String fields) {
+        Specification<Order> activeDelivery = (root, query, cb) -> cb.and(
+                cb.equal(root.get("deliveryType"), "DELIVERY"),
+                root.get("status").in(ACTIVE_DELIVERY_STATUSES)
+        );
+        return findOrderFields(fields, byRestaurant(restaurantId).and(activeDelivery));
+    }
+
+    private List<Map<String, Object>> findOrderFields(String fields, Specification<Order> filter) {
+        return sparseFieldsetRepository.findFields(
+                Order.class, FieldSelection.parse(fields, SPARSE_FIELDS), filter, "createdAt", true
+        );
+    }
+
+    private Specification<Order> byRestaurant(Long restaurantId) {
+        return (root, query, cb) -> cb.equal(root.get("restaurant").get("id"), restaurantId);
+    }
+
     // --------------------------- MAPPER ----------------------------
     private OrderDTO toDTO(Order order) {
         OrderDTO dto = new OrderDTO();
@@ -154,16 +289,15 @@ public class OrderService {
         dto.setCreatedAt(order.getCreatedAt().toLocalDateTime());
         dto.setEstimatedDelivery(order.getEstimatedDelivery().toLocalDateTime());
 
-        if (order.getCartItems() != null) {
-            dto.setItems(order.getCartItems().stream().map(item -> {
-                CartItemDTO itemDTO = new CartItemDTO();
-                itemDTO.setId(item.getId());
-                itemDTO.setOrderId(order.getId());
-                itemDTO.setDishId(item.getDish().getId());
-                itemDTO.setQuantity(item.getQuantity());
-                return itemDTO;
-            }).collect(Collectors.toList()));
-        }
+        dto.setItems(order.getOrderItems().stream().map(item -> {
+            OrderItemDTO itemDTO = new OrderItemDTO();
+            itemDTO.setId(item.getId());
+            itemDTO.setDishId(item.getDishId());
+            itemDTO.setDishName(item.getDishName());
+            itemDTO.setUnitPrice(item.getUnitPrice());
+            itemDTO.setQuantity(item.getQuantity());
+            return itemDTO;
+        }).collect(Collectors.toList()));
 
         return dto;
     }
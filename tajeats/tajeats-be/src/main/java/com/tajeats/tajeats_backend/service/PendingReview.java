@@ -0,0 +1,19 @@
+package com.tajeats.tajeats_backend.service;
+
+import java.time.LocalDate;
+
+/**
+ * A review accepted in write-behind mode but not yet in the database. The submission id
+ * makes writing it idempotent, so journal replays after a crash never duplicate it.
+ */
+public record PendingReview(
+        String submissionId,
+        String sessionId,
+        Long restaurantId,
+        String userName,
+        String userAvatar,
+        Integer rating,
+        String comment,
+        LocalDate date
+) {
+}
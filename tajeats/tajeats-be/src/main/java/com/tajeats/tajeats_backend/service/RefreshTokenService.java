@@ -0,0 +1,166 @@
+package com.tajeats.tajeats_backend.service;
+
+import com.tajeats.tajeats_backend.exception.InvalidCredentialsException;
+import com.tajeats.tajeats_backend.model.RefreshToken;
+import com.tajeats.tajeats_backend.model.User;
+import com.tajeats.tajeats_backend.repository.RefreshTokenRepository;
+import com.tajeats.tajeats_backend.repository.UserRepository;
+import com.tajeats.tajeats_backend.security.JwtUtil;
+import com.tajeats.tajeats_backend.security.TokenRevocationList;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Issues access/refresh token pairs and rotates refresh tokens. Refreshing never
+ * touches BCrypt, so access tokens can stay short-lived. Each refresh token is
+ * single-use: presenting one that was already rotated revokes its whole family,
+ * including the access tokens issued with it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final JwtUtil jwtUtil;
+    private final TokenRevocationList revocationList;
+
+    @Value("${jwt.refresh-expiration:1209600000}")
+    private long refreshExpiration;
+
+    /** Start a new token family after a password login. */
+    public AuthTokens issue(User user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchange a refresh token for a new pair. Not transactional on purpose: a
+     * detected reuse must stay revoked even though the call then fails.
+     */
+    public AuthTokens refresh(String rawToken) {
+        RefreshToken stored = rawToken == null ? null
+                : refreshTokenRepository.findByTokenHash(hash(rawToken)).orElse(null);
+        if (stored == null) {
+            throw new InvalidCredentialsException("Invalid refresh token");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (stored.getRevokedAt() != null || refreshTokenRepository.markUsed(stored.getId(), now) == 0) {
+            log.warn("Refresh token reuse for user {}, revoking family {}", stored.getUserId(), stored.getFamilyId());
+            revokeFamily(stored.getFamilyId());
+            throw new InvalidCredentialsException("Session expired, please log in again");
+        }
+        if (stored.getExpiresAt().isBefore(now)) {
+            throw new InvalidCredentialsException("Session expired, please log in again");
+        }
+
+        // Re-read the account so deleted or unapproved users can't renew
+        User user = userRepository.findById(stored.getUserId())
+                .filter(RefreshTokenService::canSignIn)
+                .orElse(null);
+        if (user == null) {
+            revokeFamily(stored.getFamilyId());
+            throw new InvalidCredentialsException("Session expired, please log in again");
+        }
+        return issue(user, stored.getFamilyId());
+    }
+
+    /** Revoke the refresh token's family and the presented access token, if any. */
+    public void logout(String rawRefreshToken, String accessToken) {
+        if (rawRefreshToken != null) {
+            refreshTokenRepository.findByTokenHash(hash(rawRefreshToken))
+                    .ifPresent(stored -> revokeFamily(stored.getFamilyId()));
+        }
+        if (accessToken != null) {
+            try {
+                Claims claims = jwtUtil.extractAllClaims(accessToken);
+                if (claims.getId() != null) {
+                    revocationList.revoke(claims.getId(), toLocal(claims.getExpiration().getTime()));
+                }
+            } catch (JwtException | IllegalArgumentException e) {
+                // Already invalid, nothing to revoke
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.refresh-tokens.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        try {
+            refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        } catch (RuntimeException e) {
+            log.warn("Refresh token purge failed", e);
+        }
+    }
+
+    private AuthTokens issue(User user, String familyId) {
+        String accessToken = jwtUtil.generateToken(user);
+        Claims access = jwtUtil.extractAllClaims(accessToken);
+
+        byte[] secret = new byte[32];
+        RANDOM.nextBytes(secret);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken token = new RefreshToken();
+        token.setUserId(user.getId());
+        token.setTokenHash(hash(rawToken));
+        token.setFamilyId(familyId);
+        token.setAccessJti(access.getId());
+        token.setAccessExpiresAt(toLocal(access.getExpiration().getTime()));
+        token.setCreatedAt(now);
+        token.setExpiresAt(now.plusNanos(refreshExpiration * 1_000_000));
+        refreshTokenRepository.save(token);
+
+        return new AuthTokens(accessToken, rawToken);
+    }
+
+    private void revokeFamily(String familyId) {
+        LocalDateTime now = LocalDateTime.now();
+        refreshTokenRepository.revokeFamily(familyId, now);
+
+        Map<String, LocalDateTime> liveAccessTokens = refreshTokenRepository.findByFamilyId(familyId).stream()
+                .filter(t -> t.getAccessJti() != null && t.getAccessExpiresAt().isAfter(now))
+                .collect(Collectors.toMap(RefreshToken::getAccessJti, RefreshToken::getAccessExpiresAt, (a, b) -> a));
+        revocationList.revokeAll(liveAccessTokens);
+    }
+
+    // Same rule as login: restaurant owners and riders need admin approval
+    private static boolean canSignIn(User user) {
+        boolean needsApproval = user.getRole() == User.Role.RESTAURANT_OWNER || user.getRole() == User.Role.RIDER;
+        return !needsApproval || Boolean.TRUE.equals(user.getIsApproved());
+    }
+
+    private static LocalDateTime toLocal(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.tajeats.tajeats_backend.service;
+
+/**
+ * Published after a restaurant's own data (fees, open state, deletion) was written.
+ */
+public record RestaurantChangedEvent(Long restaurantId) {
+}
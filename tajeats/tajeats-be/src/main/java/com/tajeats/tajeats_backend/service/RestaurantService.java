@@ -1,15 +1,28 @@
 package com.tajeats.tajeats_backend.service;
 
 import com.tajeats.tajeats_backend.dto.RestaurantDTO;
+import com.tajeats.tajeats_backend.exception.ConflictException;
 import com.tajeats.tajeats_backend.exception.ResourceNotFoundException;
 import com.tajeats.tajeats_backend.model.DeliveryMode;
 import com.tajeats.tajeats_backend.model.Restaurant;
+import com.tajeats.tajeats_backend.repository.CartItemRepository;
+import com.tajeats.tajeats_backend.repository.DishRepository;
+import com.tajeats.tajeats_backend.repository.MergePatchRepository;
 import com.tajeats.tajeats_backend.repository.RestaurantRepository;
+import com.tajeats.tajeats_backend.repository.SparseFieldsetRepository;
+import com.tajeats.tajeats_backend.util.FieldSelection;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.IntUnaryOperator;
 import java.util.stream.Collectors;
 
 @Service
@@ -17,14 +30,45 @@ import java.util.stream.Collectors;
 @Transactional
 public class RestaurantService {
 
+    // Fields selectable via ?fields= (DTO property -> entity path)
+    private static final Map<String, String> SPARSE_FIELDS = FieldSelection.identity(
+            "id", "version", "name", "image", "imageSrcset", "imageWebpSrcset", "logo", "category", "rating", "reviewCount", "deliveryTime",
+            "deliveryFee", "minOrder", "description", "isOpen", "street", "houseNumber", "postalCode",
+            "city", "phone", "email", "website", "deliveryMode", "openingMonday", "openingTuesday",
+            "openingWednesday", "openingThursday", "openingFriday", "openingSaturday", "openingSunday"
+    );
+
+    // Fields writable via PATCH; rating and reviewCount are derived from reviews
+    private static final Map<String, String> PATCHABLE_FIELDS = FieldSelection.identity(
+            "name", "image", "logo", "category", "deliveryTime", "deliveryFee", "minOrder",
+            "description", "isOpen", "street", "houseNumber", "postalCode", "city", "phone", "email",
+            "website", "deliveryMode", "openingMonday", "openingTuesday", "openingWednesday",
+            "openingThursday", "openingFriday", "openingSaturday", "openingSunday"
+    );
+
+    // Patchable fields every restaurant must keep a value for
+    private static final Set<String> REQUIRED_FIELDS = Set.of("name");
+
+    // Rows removed per statement when purging a deleted restaurant's data
+    static final int DELETE_CHUNK_SIZE = 500;
+
     private final RestaurantRepository restaurantRepository;
+    private final DishRepository dishRepository;
+    private final CartItemRepository cartItemRepository;
+    private final MergePatchRepository mergePatchRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SparseFieldsetRepository sparseFieldsetRepository;
+    private final ImageReferences imageReferences;
 
     // ---------- DTO Mapping ----------
     private RestaurantDTO toDTO(Restaurant r) {
         RestaurantDTO dto = new RestaurantDTO();
         dto.setId(r.getId());
+        dto.setVersion(r.getVersion());
         dto.setName(r.getName());
         dto.setImage(r.getImage());
+        dto.setImageSrcset(r.getImageSrcset());
+        dto.setImageWebpSrcset(r.getImageWebpSrcset());
         dto.setLogo(r.getLogo());
         dto.setCategory(r.getCategory());
         dto.setRating(r.getRating() != null ? r.getRating().doubleValue() : null);
@@ -68,8 +112,9 @@ public class RestaurantService {
         r.setImage(dto.getImage());
         r.setLogo(dto.getLogo());
         r.setCategory(dto.getCategory());
-        r.setRating(dto.getRating() != null ? dto.getRating() : null);
-        r.setReviewCount(dto.getReviewCount());
+        // Review aggregates start empty and are only changed by ReviewService
+        r.setRating(0.0);
+        r.setReviewCount(0);
         r.setDeliveryTime(dto.getDeliveryTime());
         r.setDeliveryFee(dto.getDeliveryFee());
         r.setMinOrder(dto.getMinOrder());
@@ -106,31 +151,41 @@ public class RestaurantService {
 
     // ---------- CRUD ----------
     public List<RestaurantDTO> getAll() {
-        return restaurantRepository.findAll()
+        return restaurantRepository.findByDeletedAtIsNull()
                 .stream()
                 .map(this::toDTO)
                 .collect(Collectors.toList());
     }
 
     public RestaurantDTO getById(Long id) {
-        return restaurantRepository.findById(id)
+        return restaurantRepository.findByIdAndDeletedAtIsNull(id)
                 .map(this::toDTO)
                 .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found"));
     }
 
     public RestaurantDTO create(RestaurantDTO dto) {
         Restaurant saved = restaurantRepository.save(toEntity(dto));
+        imageReferences.replaced(null, saved.getImage());
+        imageReferences.replaced(null, saved.getLogo());
         return toDTO(saved);
     }
 
     public RestaurantDTO update(Long id, RestaurantDTO dto) {
-        return restaurantRepository.findById(id).map(existing -> {
+        return restaurantRepository.findByIdAndDeletedAtIsNull(id).map(existing -> {
+            if (dto.getVersion() != null && !dto.getVersion().equals(existing.getVersion())) {
+                throw new ConflictException("Restaurant was modified by someone else, reload and try again");
+            }
             existing.setName(dto.getName());
+            if (!Objects.equals(existing.getImage(), dto.getImage())) {
+                // Variants belong to the old image
+                existing.setImageSrcset(null);
+                existing.setImageWebpSrcset(null);
+            }
+            imageReferences.replaced(existing.getImage(), dto.getImage());
+            imageReferences.replaced(existing.getLogo(), dto.getLogo());
             existing.setImage(dto.getImage());
             existing.setLogo(dto.getLogo());
             existing.setCategory(dto.getCategory());
-            existing.setRating(dto.getRating());
-            existing.setReviewCount(dto.getReviewCount());
             existing.setDeliveryTime(dto.getDeliveryTime());
             existing.setDeliveryFee(dto.getDeliveryFee());
             existing.setMinOrder(dto.getMinOrder());
@@ -162,11 +217,98 @@ public class RestaurantService {
             existing.setOpeningSaturday(dto.getOpeningSaturday());
             existing.setOpeningSunday(dto.getOpeningSunday());
 
+            eventPublisher.publishEvent(new RestaurantChangedEvent(id));
             return toDTO(existing);
         }).orElseThrow(() -> new ResourceNotFoundException("Restaurant not found"));
     }
 
+    /**
+     * Apply a JSON Merge Patch in one UPDATE of the changed columns.
+     * @return The new version of the restaurant
+     */
+    public long patch(Long id, long expectedVersion, Map<String, Object> patch) {
+        // The patch is version-checked, so the photos read at that version are the ones it replaces
+        Restaurant current = patch.containsKey("image") || patch.containsKey("logo")
+                ? currentVersion(id, expectedVersion) : null;
+        int updated = mergePatchRepository.patch(Restaurant.class, id, expectedVersion, patch, PATCHABLE_FIELDS, REQUIRED_FIELDS);
+        if (updated == 0) {
+            if (restaurantRepository.findByIdAndDeletedAtIsNull(id).isEmpty()) {
+                throw new ResourceNotFoundException("Restaurant not found");
+            }
+            throw new ConflictException("Restaurant was modified by someone else, reload and try again");
+        }
+        if (patch.containsKey("image")) {
+            restaurantRepository.clearImageSrcset(id);
+            imageReferences.replaced(current.getImage(), Objects.toString(patch.get("image"), null));
+        }
+        if (patch.containsKey("logo")) {
+            imageReferences.replaced(current.getLogo(), Objects.toString(patch.get("logo"), null));
+        }
+        eventPublisher.publishEvent(new RestaurantChangedEvent(id));
+        return expectedVersion + 1;
+    }
+
+    private Restaurant currentVersion(Long id, long expectedVersion) {
+        Restaurant restaurant = restaurantRepository.findByIdAndDeletedAtIsNull(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found"));
+        if (restaurant.getVersion() != expectedVersion) {
+            throw new ConflictException("Restaurant was modified by someone else, reload and try again");
+        }
+        return restaurant;
+    }
+
+    /**
+     * Soft-delete a restaurant with a handful of set-based statements instead of
+     * cascading through every dish, review and cart line. Dishes stay (disabled)
+     * because historical orders reference them, and reviews stay so a restore keeps
+     * its rating; reads already skip deleted restaurants. The photo and logo are
+     * released, so a restored restaurant needs new ones. Open session cart lines
+     * are purged in chunks, each committing on its own to keep locks short.
+     */
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
     public void delete(Long id) {
-        restaurantRepository.deleteById(id);
+        RestaurantRepository.DeletedImagesView images = restaurantRepository.softDelete(id, LocalDateTime.now())
+                .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found"));
+        imageReleased(images.getImage());
+        imageReleased(images.getLogo());
+        dishRepository.disableByRestaurantId(id);
+        eventPublisher.publishEvent(new MenuChangedEvent(id));
+        eventPublisher.publishEvent(new RestaurantChangedEvent(id));
+        deleteInChunks(limit -> cartItemRepository.deleteSessionItemsChunkByRestaurantId(id, limit));
+    }
+
+    private void imageReleased(String imageUrl) {
+        if (imageUrl != null) {
+            eventPublisher.publishEvent(new ImageReleasedEvent(imageUrl));
+        }
+    }
+
+    private void deleteInChunks(IntUnaryOperator deleteChunk) {
+        int deleted;
+        do {
+            deleted = deleteChunk.applyAsInt(DELETE_CHUNK_SIZE);
+        } while (deleted == DELETE_CHUNK_SIZE);
+    }
+
+    // ---------- Sparse Fieldsets ----------
+    public List<Map<String, Object>> getAll(String fields) {
+        return sparseFieldsetRepository.findFields(
+                Restaurant.class, FieldSelection.parse(fields, SPARSE_FIELDS), notDeleted(), "id", false
+        );
+    }
+
+    public Map<String, Object> getById(Long id, String fields) {
+        Specification<Restaurant> byId = (root, query, cb) -> cb.equal(root.get("id"), id);
+        List<Map<String, Object>> rows = sparseFieldsetRepository.findFields(
+                Restaurant.class, FieldSelection.parse(fields, SPARSE_FIELDS), notDeleted().and(byId), null, false
+        );
+        if (rows.isEmpty()) {
+            throw new ResourceNotFoundException("Restaurant not found");
+        }
+        return rows.get(0);
+    }
+
+    private Specification<Restaurant> notDeleted() {
+        return (root, query, cb) -> cb.isNull(root.get("deletedAt"));
     }
 }
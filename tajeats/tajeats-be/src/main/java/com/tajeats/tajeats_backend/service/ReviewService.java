@@ -1,16 +1,30 @@
 package com.tajeats.tajeats_backend.service;
 
 import com.tajeats.tajeats_backend.dto.ReviewDTO;
+import com.tajeats.tajeats_backend.dto.ReviewPageDTO;
+import com.tajeats.tajeats_backend.dto.ReviewSummaryDTO;
 import com.tajeats.tajeats_backend.exception.ResourceNotFoundException;
+import com.tajeats.tajeats_backend.exception.ValidationException;
 import com.tajeats.tajeats_backend.model.Restaurant;
 import com.tajeats.tajeats_backend.model.Review;
 import com.tajeats.tajeats_backend.repository.RestaurantRepository;
 import com.tajeats.tajeats_backend.repository.ReviewRepository;
+import com.tajeats.tajeats_backend.repository.SparseFieldsetRepository;
+import com.tajeats.tajeats_backend.util.FieldSelection;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,8 +32,30 @@ import java.util.stream.Collectors;
 @Transactional
 public class ReviewService {
 
+    // Fields selectable via ?fields= (DTO property -> entity path)
+    private static final Map<String, String> SPARSE_FIELDS = new LinkedHashMap<>();
+
+    static {
+        SPARSE_FIELDS.put("id", "id");
+        SPARSE_FIELDS.put("restaurantId", "restaurant.id");
+        SPARSE_FIELDS.putAll(FieldSelection.identity(
+                "userName", "userAvatar", "rating", "comment", "date"
+        ));
+    }
+
+    private static final String INSERT_REVIEW_BATCH = "INSERT INTO reviews "
+            + "(restaurant_id, user_name, user_avatar, rating, comment, date, submission_id) "
+            + "SELECT * FROM unnest(?::bigint[], ?::text[], ?::text[], ?::integer[], ?::text[], ?::date[], ?::text[]) "
+            + "ON CONFLICT (submission_id) DO NOTHING "
+            + "RETURNING restaurant_id, rating";
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ReviewRepository reviewRepository;
     private final RestaurantRepository restaurantRepository;
+    private final SparseFieldsetRepository sparseFieldsetRepository;
+    private final JdbcTemplate jdbcTemplate;
 
     private ReviewDTO toDTO(Review r) {
         ReviewDTO dto = new ReviewDTO();
@@ -42,7 +78,7 @@ public class ReviewService {
         r.setComment(dto.getComment());
         r.setDate(dto.getDate());
 
-        Restaurant restaurant = restaurantRepository.findById(dto.getRestaurantId())
+        Restaurant restaurant = restaurantRepository.findByIdAndDeletedAtIsNull(dto.getRestaurantId())
                 .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found"));
         r.setRestaurant(restaurant);
 
@@ -60,27 +96,43 @@ public class ReviewService {
     }
 
     public ReviewDTO create(ReviewDTO dto) {
-        Review saved = reviewRepository.save(toEntity(dto));
-        
-        // Auto-update restaurant rating
-        updateRestaurantRating(dto.getRestaurantId());
-        
+        validateRating(dto.getRating());
+        Review review = toEntity(dto);
+        if (review.getDate() == null) {
+            review.setDate(LocalDate.now());
+        }
+        Review saved = reviewRepository.save(review);
+
+        applyRating(saved.getRestaurant().getId(), 1, saved.getRating());
+
         return toDTO(saved);
     }
 
     public ReviewDTO update(Long id, ReviewDTO dto) {
+        validateRating(dto.getRating());
         return reviewRepository.findById(id).map(existing -> {
+            Long oldRestaurantId = existing.getRestaurant().getId();
+            Integer oldRating = existing.getRating();
 
             existing.setUserName(dto.getUserName());
             existing.setUserAvatar(dto.getUserAvatar());
             existing.setRating(dto.getRating());
             existing.setComment(dto.getComment());
-            existing.setDate(dto.getDate());
+            if (dto.getDate() != null) {
+                existing.setDate(dto.getDate());
+            }
 
-            Restaurant restaurant = restaurantRepository.findById(dto.getRestaurantId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found"));
+            if (dto.getRestaurantId() != null && !dto.getRestaurantId().equals(oldRestaurantId)) {
+                Restaurant restaurant = restaurantRepository.findByIdAndDeletedAtIsNull(dto.getRestaurantId())
+                        .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found"));
+                existing.setRestaurant(restaurant);
+            }
 
-            existing.setRestaurant(restaurant);
+            Long newRestaurantId = existing.getRestaurant().getId();
+            if (!newRestaurantId.equals(oldRestaurantId) || !dto.getRating().equals(oldRating)) {
+                applyRating(oldRestaurantId, -1, oldRating);
+                applyRating(newRestaurantId, 1, dto.getRating());
+            }
 
             return toDTO(existing);
 
@@ -88,7 +140,10 @@ public class ReviewService {
     }
 
     public void delete(Long id) {
-        reviewRepository.deleteById(id);
+        reviewRepository.findById(id).ifPresent(review -> {
+            reviewRepository.delete(review);
+            applyRating(review.getRestaurant().getId(), -1, review.getRating());
+        });
     }
     
     // ---------- Custom Queries ----------
@@ -99,17 +154,182 @@ public class ReviewService {
                 .collect(Collectors.toList());
     }
     
-    // ---------- Helper Methods ----------
-    private void updateRestaurantRating(Long restaurantId) {
-        Double avgRating = reviewRepository.findAverageRatingByRestaurantId(restaurantId);
-        Long reviewCount = reviewRepository.countByRestaurantId(restaurantId);
-        
-        Restaurant restaurant = restaurantRepository.findById(restaurantId)
+    // ---------- Write-Behind Batches ----------
+    /**
+     * Insert reviews accepted in write-behind mode with one statement, skipping any that were
+     * already written, then apply one rating delta per restaurant for the rows actually inserted.
+     * @return The number of reviews inserted
+     */
+    public int createBatch(List<PendingReview> reviews) {
+        if (reviews.isEmpty()) {
+            return 0;
+        }
+        List<long[]> inserted = jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_REVIEW_BATCH);
+            ps.setArray(1, connection.createArrayOf("bigint",
+                    reviews.stream().map(PendingReview::restaurantId).toArray()));
+            ps.setArray(2, connection.createArrayOf("text",
+                    reviews.stream().map(PendingReview::userName).toArray()));
+            ps.setArray(3, connection.createArrayOf("text",
+                    reviews.stream().map(PendingReview::userAvatar).toArray()));
+            ps.setArray(4, connection.createArrayOf("integer",
+                    reviews.stream().map(PendingReview::rating).toArray()));
+            ps.setArray(5, connection.createArrayOf("text",
+                    reviews.stream().map(PendingReview::comment).toArray()));
+            ps.setArray(6, connection.createArrayOf("date",
+                    reviews.stream().map(r -> java.sql.Date.valueOf(r.date())).toArray()));
+            ps.setArray(7, connection.createArrayOf("text",
+                    reviews.stream().map(PendingReview::submissionId).toArray()));
+            return ps;
+        }, (rs, rowNum) -> new long[]{rs.getLong(1), rs.getInt(2)});
+
+        // restaurant -> {count, sum, 1 star, ..., 5 stars}
+        Map<Long, long[]> deltas = new HashMap<>();
+        for (long[] row : inserted) {
+            long[] delta = deltas.computeIfAbsent(row[0], id -> new long[7]);
+            delta[0]++;
+            delta[1] += row[1];
+            delta[1 + (int) row[1]]++;
+        }
+        deltas.forEach((restaurantId, d) -> restaurantRepository.applyRatingDelta(
+                restaurantId, (int) d[0], d[1], (int) d[2], (int) d[3], (int) d[4], (int) d[5], (int) d[6]
+        ));
+        return inserted.size();
+    }
+
+    // ---------- Keyset Pages ----------
+    /**
+     * One page of a restaurant's reviews, newest first ({@code sort=date}) or best first
+     * ({@code sort=rating}). Pages continue from an opaque cursor rather than an offset, so
+     * deep pages cost the same as the first. The first page also carries the rating summary,
+     * read from the restaurant's running aggregates.
+     */
+    public ReviewPageDTO getPageByRestaurant(Long restaurantId, String sort, String cursor, Integer size) {
+        boolean byRating = "rating".equals(sort);
+        if (sort != null && !byRating && !"date".equals(sort)) {
+            throw new ValidationException("Unknown sort '" + sort + "', use date or rating");
+        }
+        int limit = Math.max(1, Math.min(size != null ? size : DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE));
+
+        List<Review> rows;
+        if (cursor == null) {
+            rows = byRating
+                    ? reviewRepository.findFirstPageByRating(restaurantId, limit + 1)
+                    : reviewRepository.findFirstPageByDate(restaurantId, limit + 1);
+        } else {
+            String[] key = decodeCursor(cursor, byRating ? 3 : 2);
+            // Only the cursor parse maps to a 400; query failures must surface as they are
+            int afterRating;
+            LocalDate afterDate;
+            long afterId;
+            try {
+                afterRating = byRating ? Integer.parseInt(key[0]) : 0;
+                afterDate = LocalDate.parse(key[byRating ? 1 : 0]);
+                afterId = Long.parseLong(key[byRating ? 2 : 1]);
+            } catch (RuntimeException e) {
+                throw new ValidationException("Invalid cursor");
+            }
+            rows = byRating
+                    ? reviewRepository.findPageByRatingAfter(restaurantId, afterRating, afterDate, afterId, limit + 1)
+                    : reviewRepository.findPageByDateAfter(restaurantId, afterDate, afterId, limit + 1);
+        }
+
+        // One extra row tells whether another page exists
+        boolean hasMore = rows.size() > limit;
+        List<Review> page = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            Review last = page.get(page.size() - 1);
+            nextCursor = byRating
+                    ? encodeCursor(last.getRating(), last.getDate(), last.getId())
+                    : encodeCursor(last.getDate(), last.getId());
+        }
+
+        ReviewSummaryDTO summary = cursor == null ? getSummary(restaurantId) : null;
+        return new ReviewPageDTO(page.stream().map(this::toDTO).collect(Collectors.toList()), nextCursor, summary);
+    }
+
+    public ReviewSummaryDTO getSummary(Long restaurantId) {
+        RestaurantRepository.ReviewSummaryView view = restaurantRepository.findReviewSummaryById(restaurantId)
                 .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found"));
-        
-        restaurant.setRating(avgRating != null ? avgRating : 0.0);
-        restaurant.setReviewCount(reviewCount != null ? reviewCount.intValue() : 0);
-        
-        restaurantRepository.save(restaurant);
+
+        Map<Integer, Integer> histogram = new LinkedHashMap<>();
+        histogram.put(5, view.getStars5());
+        histogram.put(4, view.getStars4());
+        histogram.put(3, view.getStars3());
+        histogram.put(2, view.getStars2());
+        histogram.put(1, view.getStars1());
+        return new ReviewSummaryDTO(
+                view.getRating() != null ? view.getRating() : 0.0,
+                view.getReviewCount() != null ? view.getReviewCount() : 0,
+                histogram
+        );
+    }
+
+    private String encodeCursor(Object... key) {
+        String joined = Arrays.stream(key).map(String::valueOf).collect(Collectors.joining("|"));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(joined.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor, int parts) {
+        try {
+            String[] key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (key.length == parts) {
+                return key;
+            }
+        } catch (IllegalArgumentException e) {
+            // Fall through
+        }
+        throw new ValidationException("Invalid cursor");
+    }
+
+    // ---------- Sparse Fieldsets ----------
+    public List<Map<String, Object>> getAll(String fields) {
+        return sparseFieldsetRepository.findFields(
+                Review.class, FieldSelection.parse(fields, SPARSE_FIELDS), null, "id", false
+        );
+    }
+
+    public Map<String, Object> getById(Long id, String fields) {
+        Map<String, Object> review = sparseFieldsetRepository.findFieldsById(
+                Review.class, FieldSelection.parse(fields, SPARSE_FIELDS), id
+        );
+        if (review == null) {
+            throw new ResourceNotFoundException("Review not found");
+        }
+        return review;
+    }
+
+    public List<Map<String, Object>> getByRestaurant(Long restaurantId, String fields) {
+        return sparseFieldsetRepository.findFields(
+                Review.class,
+                FieldSelection.parse(fields, SPARSE_FIELDS),
+                (root, query, cb) -> cb.equal(root.get("restaurant").get("id"), restaurantId),
+                "date",
+                true
+        );
+    }
+
+    // ---------- Helper Methods ----------
+    private void validateRating(Integer rating) {
+        if (rating == null || rating < 1 || rating > 5) {
+            throw new ValidationException("Rating must be between 1 and 5");
+        }
+    }
+
+    // Adds (sign 1) or removes (sign -1) one review's rating in a single row update
+    private void applyRating(Long restaurantId, int sign, Integer rating) {
+        if (rating == null || rating < 1 || rating > 5) {
+            // Legacy rows without a valid rating were never counted
+            return;
+        }
+        restaurantRepository.applyRatingDelta(
+                restaurantId, sign, (long) sign * rating,
+                rating == 1 ? sign : 0,
+                rating == 2 ? sign : 0,
+                rating == 3 ? sign : 0,
+                rating == 4 ? sign : 0,
+                rating == 5 ? sign : 0
+        );
     }
 }
@@ -0,0 +1,352 @@
+package com.tajeats.tajeats_backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tajeats.tajeats_backend.dto.ReviewDTO;
+import com.tajeats.tajeats_backend.exception.ValidationException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Optional write-behind path for review submissions ({@code app.reviews.write-behind.enabled}).
+ * Accepted reviews are appended to a journal file and a bounded in-memory queue, then written
+ * on a schedule in batches with one rating update per restaurant per batch. When the queue is
+ * full the submission falls back to a synchronous write. The journal is replayed on startup;
+ * submission ids make replays idempotent. The journal is flushed to the OS on every append,
+ * so accepted reviews survive a process crash. Until written, a review is visible to the
+ * session that submitted it through {@link #pendingFor}.
+ *
+ * A chunk rejected by a constraint is bisected so the valid reviews in it are still written;
+ * a review that keeps failing on its own is moved to a dead-letter file after
+ * {@code max-attempts} flushes. Other failures (e.g. the database being down) retry the
+ * whole chunk on the next flush.
+ */
+@Slf4j
+@Service
+public class ReviewWriteBehindService {
+
+    private final ReviewService reviewService;
+    private final CatalogCache catalogCache;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.reviews.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.reviews.write-behind.capacity:10000}")
+    private int capacity;
+
+    @Value("${app.reviews.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.reviews.write-behind.journal:data/review-journal.log}")
+    private String journalPath;
+
+    @Value("${app.reviews.write-behind.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.reviews.write-behind.dead-letter:data/review-dead-letter.log}")
+    private String deadLetterPath;
+
+    // Only one flush at a time, whether scheduled or on shutdown
+    private final Object flushLock = new Object();
+
+    // Guarded by this; the journal always holds exactly the queued reviews
+    private final List<PendingReview> queue = new ArrayList<>();
+    private BufferedWriter journal;
+
+    // submission id -> failed flushes of a review rejected on its own; guarded by flushLock
+    private final Map<String, Integer> attempts = new HashMap<>();
+
+    // Read-your-own-write index: session -> its reviews not yet written
+    private final Map<String, Queue<PendingReview>> pendingBySession = new ConcurrentHashMap<>();
+
+    public record Submission(ReviewDTO review, boolean queued) {
+    }
+
+    public ReviewWriteBehindService(ReviewService reviewService, CatalogCache catalogCache, ObjectMapper objectMapper) {
+        this.reviewService = reviewService;
+        this.catalogCache = catalogCache;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Path path = Paths.get(journalPath);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        // Reviews accepted before a restart or crash; already written ones are skipped on insert
+        for (Path segment : List.of(flushingPath(), path)) {
+            if (Files.exists(segment)) {
+                for (String line : Files.readAllLines(segment, StandardCharsets.UTF_8)) {
+                    if (!line.isBlank()) {
+                        track(objectMapper.readValue(line, PendingReview.class));
+                    }
+                }
+            }
+        }
+        Files.deleteIfExists(flushingPath());
+        rewriteJournal();
+        log.info("Review write-behind enabled, {} reviews replayed from {}", queue.size(), path);
+    }
+
+    // ---------- Submit ----------
+    public Submission submit(ReviewDTO dto, String sessionId) {
+        if (!enabled) {
+            return new Submission(reviewService.create(dto), false);
+        }
+        if (dto.getRating() == null || dto.getRating() < 1 || dto.getRating() > 5) {
+            throw new ValidationException("Rating must be between 1 and 5");
+        }
+        // Existence check from the cache, so an accepted review cannot fail on its foreign key later
+        catalogCache.getRestaurant(dto.getRestaurantId());
+
+        PendingReview review = new PendingReview(
+                UUID.randomUUID().toString(), sessionId, dto.getRestaurantId(), dto.getUserName(),
+                dto.getUserAvatar(), dto.getRating(), dto.getComment(),
+                dto.getDate() != null ? dto.getDate() : LocalDate.now()
+        );
+        boolean accepted;
+        synchronized (this) {
+            accepted = queue.size() < capacity;
+            if (accepted) {
+                append(review);
+                track(review);
+            }
+        }
+        if (!accepted) {
+            // Shed load onto the synchronous path rather than rejecting the review,
+            // outside the lock so other submitters and the flush do not wait on it
+            return new Submission(reviewService.create(dto), false);
+        }
+        return new Submission(toDTO(review), true);
+    }
+
+    /**
+     * Reviews of a restaurant submitted by this session that are not written yet, newest first.
+     */
+    public List<ReviewDTO> pendingFor(String sessionId, Long restaurantId) {
+        if (sessionId == null) {
+            return List.of();
+        }
+        Queue<PendingReview> pending = pendingBySession.get(sessionId);
+        if (pending == null) {
+            return List.of();
+        }
+        List<ReviewDTO> reviews = pending.stream()
+                .filter(r -> r.restaurantId().equals(restaurantId))
+                .map(this::toDTO)
+                .collect(Collectors.toList());
+        Collections.reverse(reviews);
+        return reviews;
+    }
+
+    // ---------- Flush ----------
+    @Scheduled(fixedDelayString = "${app.reviews.write-behind.flush-interval-ms:1000}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (flushLock) {
+            flushQueued();
+        }
+    }
+
+    private void flushQueued() {
+        List<PendingReview> batch;
+        synchronized (this) {
+            if (queue.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(queue);
+            queue.clear();
+            rotateJournal();
+        }
+
+        Set<PendingReview> failed = new HashSet<>();
+        List<PendingReview> dead = new ArrayList<>();
+        for (int from = 0; from < batch.size(); from += batchSize) {
+            write(batch.subList(from, Math.min(from + batchSize, batch.size())), failed, dead);
+        }
+        if (!dead.isEmpty() && !deadLetter(dead)) {
+            failed.addAll(dead);
+        }
+
+        for (PendingReview review : batch) {
+            if (!failed.contains(review)) {
+                attempts.remove(review.submissionId());
+                untrack(review);
+            }
+        }
+        synchronized (this) {
+            // Failed reviews go back into the journal before the flushed segment is dropped
+            failed.forEach(this::append);
+            queue.addAll(0, batch.stream().filter(failed::contains).collect(Collectors.toList()));
+            try {
+                Files.deleteIfExists(flushingPath());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    // Bisects a chunk rejected by a constraint, so a bad row cannot hold back the rest
+    private void write(List<PendingReview> chunk, Set<PendingReview> failed, List<PendingReview> dead) {
+        try {
+            reviewService.createBatch(chunk);
+        } catch (DataIntegrityViolationException e) {
+            if (chunk.size() > 1) {
+                int mid = chunk.size() / 2;
+                write(chunk.subList(0, mid), failed, dead);
+                write(chunk.subList(mid, chunk.size()), failed, dead);
+                return;
+            }
+            PendingReview review = chunk.get(0);
+            int attempt = attempts.merge(review.submissionId(), 1, Integer::sum);
+            if (attempt >= maxAttempts) {
+                log.error("Review {} rejected {} times, moving it to the dead-letter file",
+                        review.submissionId(), attempt, e);
+                attempts.remove(review.submissionId());
+                dead.add(review);
+            } else {
+                log.warn("Review {} rejected, retrying on the next flush", review.submissionId(), e);
+                failed.add(review);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Review batch of {} failed, retrying on the next flush", chunk.size(), e);
+            failed.addAll(chunk);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        flush();
+        synchronized (this) {
+            closeJournal();
+        }
+    }
+
+    // ---------- Journal ----------
+    private void append(PendingReview review) {
+        try {
+            journal.write(objectMapper.writeValueAsString(review));
+            journal.newLine();
+            journal.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not journal review", e);
+        }
+    }
+
+    private boolean deadLetter(List<PendingReview> reviews) {
+        Path path = Paths.get(deadLetterPath);
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            List<String> lines = new ArrayList<>();
+            for (PendingReview review : reviews) {
+                lines.add(objectMapper.writeValueAsString(review));
+            }
+            Files.write(path, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            return true;
+        } catch (IOException e) {
+            // Keep them queued rather than lose them
+            log.error("Could not write {} reviews to the dead-letter file", reviews.size(), e);
+            return false;
+        }
+    }
+
+    // Moves the current journal aside while its reviews are written; new submissions start a fresh file
+    private void rotateJournal() {
+        closeJournal();
+        try {
+            Files.move(Paths.get(journalPath), flushingPath(), StandardCopyOption.REPLACE_EXISTING);
+            openJournal(StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void rewriteJournal() throws IOException {
+        openJournal(StandardOpenOption.TRUNCATE_EXISTING);
+        queue.forEach(this::append);
+    }
+
+    private void openJournal(StandardOpenOption mode) throws IOException {
+        journal = Files.newBufferedWriter(Paths.get(journalPath), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode);
+    }
+
+    private void closeJournal() {
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                log.warn("Failed to close review journal", e);
+            }
+            journal = null;
+        }
+    }
+
+    private Path flushingPath() {
+        return Paths.get(journalPath + ".flushing");
+    }
+
+    // ---------- Pending Index ----------
+    private void track(PendingReview review) {
+        queue.add(review);
+        if (review.sessionId() != null) {
+            pendingBySession.computeIfAbsent(review.sessionId(), id -> new ConcurrentLinkedQueue<>()).add(review);
+        }
+    }
+
+    private void untrack(PendingReview review) {
+        if (review.sessionId() != null) {
+            pendingBySession.computeIfPresent(review.sessionId(), (id, pending) -> {
+                pending.remove(review);
+                return pending.isEmpty() ? null : pending;
+            });
+        }
+    }
+
+    private ReviewDTO toDTO(PendingReview review) {
+        ReviewDTO dto = new ReviewDTO();
+        dto.setRestaurantId(review.restaurantId());
+        dto.setUserName(review.userName());
+        dto.setUserAvatar(review.userAvatar());
+        dto.setRating(review.rating());
+        dto.setComment(review.comment());
+        dto.setDate(review.date());
+        return dto;
+    }
+}
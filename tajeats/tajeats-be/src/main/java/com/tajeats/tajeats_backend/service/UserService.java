@@ -7,11 +7,10 @@ import com.tajeats.tajeats_backend.exception.InvalidCredentialsException;
 import com.tajeats.tajeats_backend.exception.UserAlreadyExistsException;
 import com.tajeats.tajeats_backend.model.User;
 import com.tajeats.tajeats_backend.repository.UserRepository;
-import com.tajeats.tajeats_backend.security.JwtUtil;
+import com.tajeats.tajeats_backend.security.StaleTokenRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -26,7 +25,8 @@ public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
-    private final JwtUtil jwtUtil;
+    private final RefreshTokenService refreshTokenService;
+    private final StaleTokenRegistry staleTokens;
     
     public UserDTO registerUser(RegisterRequest request) {
         // Validate email uniqueness
@@ -54,17 +54,16 @@ public class UserService {
         return toDTO(savedUser);
     }
     
-    public String authenticate(String email, String password) {
+    public AuthTokens authenticate(String email, String password) {
         try {
-            Authentication authentication = authenticationManager.authenticate(
+            authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(email, password)
             );
             
-            // If authentication successful, generate token
-            org.springframework.security.core.userdetails.UserDetails userDetails =
-                    (org.springframework.security.core.userdetails.UserDetails) authentication.getPrincipal();
-            
-            return jwtUtil.generateToken(userDetails);
+            // If authentication successful, generate a token carrying the role and ids as claims
+            User user = userRepository.findByEmail(email)
+                    .orElseThrow(() -> new InvalidCredentialsException("Invalid email or password"));
+            return refreshTokenService.issue(user);
         } catch (AuthenticationException e) {
             throw new InvalidCredentialsException("Invalid email or password");
         }
@@ -103,6 +102,7 @@ public class UserService {
                 .orElseThrow(() -> new InvalidCredentialsException("User not found"));
         
         userRepository.delete(user);
+        staleTokens.markChanged(userId);
     }
     
     public UserDTO linkRestaurant(Long userId, Long restaurantId) {
@@ -111,6 +111,8 @@ public class UserService {
         
         user.setRestaurantId(restaurantId);
         User savedUser = userRepository.save(user);
+        // Outstanding tokens still carry the old restaurant id; they resolve the user from the database
+        staleTokens.markChanged(userId);
         return toDTO(savedUser);
     }
 
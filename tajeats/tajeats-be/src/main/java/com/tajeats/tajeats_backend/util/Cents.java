@@ -0,0 +1,24 @@
+package com.tajeats.tajeats_backend.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Money as a whole number of cents, so sums of prices are exact long additions.
+ */
+public final class Cents {
+
+    private Cents() {
+    }
+
+    public static long of(BigDecimal amount) {
+        if (amount == null) {
+            return 0;
+        }
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
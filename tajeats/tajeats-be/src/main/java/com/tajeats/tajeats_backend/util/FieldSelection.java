@@ -0,0 +1,55 @@
+package com.tajeats.tajeats_backend.util;
+
+import com.tajeats.tajeats_backend.exception.ValidationException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parses the {@code ?fields=} parameter of read endpoints into an ordered
+ * map of DTO property name -> entity attribute path.
+ */
+public final class FieldSelection {
+
+    private FieldSelection() {
+    }
+
+    /**
+     * Validate a comma separated field list against a whitelist.
+     * The id is always selected so partial objects can still be correlated.
+     * @param fields Raw value of the fields parameter, e.g. "name,rating,image"
+     * @param whitelist Allowed DTO properties mapped to their entity paths
+     * @return Selected properties in request order
+     * @throws ValidationException if a field is not in the whitelist
+     */
+    public static Map<String, String> parse(String fields, Map<String, String> whitelist) {
+        Map<String, String> selected = new LinkedHashMap<>();
+        selected.put("id", whitelist.get("id"));
+
+        for (String raw : fields.split(",")) {
+            String field = raw.trim();
+            if (field.isEmpty()) {
+                continue;
+            }
+            String path = whitelist.get(field);
+            if (path == null) {
+                throw new ValidationException(
+                        "Unknown field '" + field + "'. Allowed fields: " + String.join(", ", whitelist.keySet())
+                );
+            }
+            selected.put(field, path);
+        }
+        return selected;
+    }
+
+    /**
+     * Build a whitelist where every DTO property maps to the entity attribute of the same name.
+     */
+    public static Map<String, String> identity(String... properties) {
+        Map<String, String> whitelist = new LinkedHashMap<>();
+        for (String property : properties) {
+            whitelist.put(property, property);
+        }
+        return whitelist;
+    }
+}
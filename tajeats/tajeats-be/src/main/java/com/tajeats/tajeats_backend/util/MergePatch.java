@@ -0,0 +1,47 @@
+package com.tajeats.tajeats_backend.util;
+
+import com.tajeats.tajeats_backend.exception.ValidationException;
+
+import java.util.Map;
+
+/**
+ * Helpers for JSON Merge Patch (RFC 7396) requests guarded by a version number.
+ */
+public final class MergePatch {
+
+    public static final String MEDIA_TYPE = "application/merge-patch+json";
+
+    private static final String VERSION_FIELD = "version";
+
+    private MergePatch() {
+    }
+
+    /**
+     * Resolve the version the client last saw, from an If-Match header ("3" or W/"3")
+     * or from a "version" member of the patch document. The member is removed
+     * from the patch so it is never written as a regular column.
+     * @throws ValidationException if neither is present or the value is not a number
+     */
+    public static long expectedVersion(String ifMatch, Map<String, Object> patch) {
+        Object fromBody = patch.remove(VERSION_FIELD);
+        String raw = ifMatch != null ? ifMatch : (fromBody != null ? fromBody.toString() : null);
+        if (raw == null) {
+            throw new ValidationException("Missing version: send an If-Match header or a \"version\" field");
+        }
+
+        String value = raw.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        value = value.replace("\"", "");
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Invalid version: " + raw);
+        }
+    }
+
+    public static String etag(long version) {
+        return "\"" + version + "\"";
+    }
+}
@@ -0,0 +1,101 @@
+package com.tajeats.tajeats_backend.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy hitters over a fixed number of counters, with forward exponential decay.
+ * Each hit is weighted by 2^((t - landmark) / halfLife), so older hits count for less without
+ * ever touching the existing counters; counters are rescaled only when the weights grow large.
+ * Memory is bounded by {@code capacity} regardless of how many distinct items are offered.
+ */
+public class SpaceSavingTopK {
+
+    // Rescale before weights get anywhere near losing double precision
+    private static final double MAX_EXPONENT = 40;
+
+    private final int capacity;
+    private final double halfLifeMillis;
+    private final Map<Long, Counter> counters;
+    private long landmark;
+    private long hitsOffered;
+
+    private static final class Counter {
+        double count;
+    }
+
+    public SpaceSavingTopK(int capacity, long halfLifeMillis, long now) {
+        if (capacity < 1 || halfLifeMillis < 1) {
+            throw new IllegalArgumentException("capacity and halfLifeMillis must be positive");
+        }
+        this.capacity = capacity;
+        this.halfLifeMillis = halfLifeMillis;
+        this.counters = new HashMap<>(capacity * 2);
+        this.landmark = now;
+    }
+
+    public synchronized void offer(long item, long hits, long now) {
+        if (hits <= 0) {
+            return;
+        }
+        hitsOffered += hits;
+        double exponent = (now - landmark) / halfLifeMillis;
+        if (exponent > MAX_EXPONENT) {
+            rescale(now);
+            exponent = 0;
+        }
+        double weight = hits * Math.pow(2, exponent);
+
+        Counter counter = counters.get(item);
+        if (counter == null) {
+            counter = new Counter();
+            if (counters.size() >= capacity) {
+                // Evict the smallest counter; the newcomer inherits its count
+                Map.Entry<Long, Counter> min = null;
+                for (Map.Entry<Long, Counter> e : counters.entrySet()) {
+                    if (min == null || e.getValue().count < min.getValue().count) {
+                        min = e;
+                    }
+                }
+                counters.remove(min.getKey());
+                counter.count = min.getValue().count;
+            }
+            counters.put(item, counter);
+        }
+        counter.count += weight;
+    }
+
+    /**
+     * @return Up to {@code k} items ordered by decayed count, highest first
+     */
+    public synchronized List<Long> top(int k) {
+        List<Map.Entry<Long, Counter>> entries = new ArrayList<>(counters.entrySet());
+        entries.sort((a, b) -> Double.compare(b.getValue().count, a.getValue().count));
+
+        List<Long> top = new ArrayList<>(Math.min(k, entries.size()));
+        for (Map.Entry<Long, Counter> e : entries) {
+            if (top.size() == k) {
+                break;
+            }
+            top.add(e.getKey());
+        }
+        return top;
+    }
+
+    /**
+     * @return Undecayed total of all hits offered, to tell a warm sketch from a fresh one
+     */
+    public synchronized long hitsOffered() {
+        return hitsOffered;
+    }
+
+    private void rescale(long now) {
+        double factor = Math.pow(2, -(now - landmark) / halfLifeMillis);
+        for (Counter counter : counters.values()) {
+            counter.count *= factor;
+        }
+        landmark = now;
+    }
+}
@@ -0,0 +1,77 @@
+package com.tajeats.tajeats_backend.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Cost of one rate limit decision on the request path, over 10,000 client keys.
+ * Run main() on the test classpath after mvn test-compile (not part of the test suite).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InMemoryRateLimitBackendBenchmark {
+
+    private static final int KEYS = 10_000;
+    private static final long PERIOD = TimeUnit.SECONDS.toNanos(60);
+
+    private InMemoryRateLimitBackend backend;
+    private String[] keys;
+
+    // Per-thread position in the key set, so threads do not contend on a shared counter
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next = ThreadLocalRandom.current().nextInt(KEYS);
+
+        String key(String[] keys) {
+            next = next + 1 == KEYS ? 0 : next + 1;
+            return keys[next];
+        }
+    }
+
+    @Setup
+    public void setup() {
+        backend = new InMemoryRateLimitBackend();
+        ReflectionTestUtils.setField(backend, "maxBuckets", 200_000);
+        keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "0|ip:10.0." + (i / 256) + "." + (i % 256);
+            backend.tryAcquire(keys[i], 5, PERIOD);
+        }
+    }
+
+    // Mostly rejections once each key's 5 tokens are spent; both outcomes take the same path
+    @Benchmark
+    public long acquire(Cursor cursor) {
+        return backend.tryAcquire(cursor.key(keys), 5, PERIOD);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long acquireFourThreads(Cursor cursor) {
+        return backend.tryAcquire(cursor.key(keys), 5, PERIOD);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(InMemoryRateLimitBackendBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,92 @@
+package com.tajeats.tajeats_backend.security;
+
+import com.tajeats.tajeats_backend.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+
+/**
+ * Tokens verified per second on the request path.
+ * Run main() on the test classpath after mvn test-compile (not part of the test suite).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET = "TajEatsSecretKeyForJWTTokenGenerationAndValidation2026MustBeAtLeast256BitsLong";
+
+    private JwtUtil uncached;
+    private JwtUtil cached;
+    private String token;
+
+    @Setup
+    public void setup() {
+        uncached = jwtUtil(0);
+        cached = jwtUtil(10_000);
+
+        User user = new User();
+        user.setId(7L);
+        user.setEmail("owner@tajeats.test");
+        user.setRole(User.Role.RESTAURANT_OWNER);
+        user.setRestaurantId(42L);
+        user.setIsApproved(true);
+        token = cached.generateToken(user);
+    }
+
+    private static JwtUtil jwtUtil(int cacheSize) {
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "secret", SECRET);
+        ReflectionTestUtils.setField(util, "expiration", 3_600_000L);
+        ReflectionTestUtils.setField(util, "verifiedCacheSize", cacheSize);
+        util.init();
+        return util;
+    }
+
+    // What the filter used to do: extractUsername, then validateToken's two more parses,
+    // each decoding the secret and building a parser
+    @Benchmark
+    public boolean legacyThreeParses() {
+        String username = legacyParse(token).getSubject();
+        return username.equals(legacyParse(token).getSubject())
+                && legacyParse(token).getExpiration().after(new Date());
+    }
+
+    @Benchmark
+    public Claims singleParse() {
+        return uncached.extractAllClaims(token);
+    }
+
+    @Benchmark
+    public Claims cachedDigest() {
+        return cached.extractAllClaims(token);
+    }
+
+    private static Claims legacyParse(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtUtilBenchmark.class.getSimpleName()).build()).run();
+    }
+}
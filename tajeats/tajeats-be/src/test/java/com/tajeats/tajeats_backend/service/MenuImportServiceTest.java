@@ -0,0 +1,115 @@
+package com.tajeats.tajeats_backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tajeats.tajeats_backend.dto.MenuImportResultDTO;
+import com.tajeats.tajeats_backend.model.Restaurant;
+import com.tajeats.tajeats_backend.repository.RestaurantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MenuImportServiceTest {
+
+    private static final long RESTAURANT_ID = 7L;
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ImageReferences imageReferences;
+
+    private MenuImportService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new MenuImportService(restaurantRepository, jdbcTemplate, new ObjectMapper(), eventPublisher, imageReferences);
+        when(restaurantRepository.findByIdAndDeletedAtIsNull(RESTAURANT_ID)).thenReturn(Optional.of(new Restaurant()));
+    }
+
+    @Test
+    void quotedFieldsMaySpanLines() {
+        List<Object[]> inserted = recordInserts();
+        String csv = "\uFEFFname,description,price\r\n"
+                + "Soup,\"Hot,\r\nwith \"\"bread\"\"\",4.50\r\n"
+                + "Salad,Fresh,3\r\n";
+
+        MenuImportResultDTO result = service.importCsv(RESTAURANT_ID, stream(csv));
+
+        assertEquals(2, result.getImported());
+        assertEquals(0, result.getRejected());
+        assertEquals("Soup", inserted.get(0)[1]);
+        assertEquals("Hot,\r\nwith \"bread\"", inserted.get(0)[2]);
+        assertEquals("Salad", inserted.get(1)[1]);
+    }
+
+    @Test
+    void nonObjectJsonElementIsReportedAndSkipped() {
+        String json = "[{\"name\":\"Soup\",\"price\":4.5}, 42, [\"x\"], {\"name\":\"Salad\",\"price\":3}]";
+
+        MenuImportResultDTO result = service.importJson(RESTAURANT_ID, stream(json));
+
+        assertEquals(2, result.getImported());
+        assertEquals(2, result.getRejected());
+        assertEquals(List.of(2, 3), result.getErrors().stream().map(MenuImportResultDTO.RowError::getRow).toList());
+    }
+
+    @Test
+    void importsAThousandDishesWellUnderASecond() {
+        StringBuilder csv = new StringBuilder("name,description,category,price,isAvailable\n");
+        for (int i = 0; i < 1_000; i++) {
+            csv.append("Dish ").append(i).append(",\"Chef's special, no. ").append(i).append("\",Mains,")
+                    .append(i % 50).append(".90,true\n");
+        }
+        byte[] body = csv.toString().getBytes(StandardCharsets.UTF_8);
+
+        // Parsing, validation and batching only; the inserts themselves go to the mock
+        MenuImportResultDTO result = assertTimeout(Duration.ofSeconds(1),
+                () -> service.importCsv(RESTAURANT_ID, new ByteArrayInputStream(body)));
+
+        assertEquals(1_000, result.getImported());
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList());
+    }
+
+    // ---------- Helpers ----------
+    // The service reuses its batch list, so rows are copied as each batch is written
+    private List<Object[]> recordInserts() {
+        List<Object[]> rows = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(call -> {
+            List<Object[]> batch = call.getArgument(1);
+            rows.addAll(batch);
+            return new int[batch.size()];
+        });
+        return rows;
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
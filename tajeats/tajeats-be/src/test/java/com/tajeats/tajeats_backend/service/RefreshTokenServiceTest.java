@@ -0,0 +1,143 @@
+package com.tajeats.tajeats_backend.service;
+
+import com.tajeats.tajeats_backend.exception.InvalidCredentialsException;
+import com.tajeats.tajeats_backend.model.RefreshToken;
+import com.tajeats.tajeats_backend.model.User;
+import com.tajeats.tajeats_backend.repository.RefreshTokenRepository;
+import com.tajeats.tajeats_backend.repository.UserRepository;
+import com.tajeats.tajeats_backend.security.JwtUtil;
+import com.tajeats.tajeats_backend.security.TokenRevocationList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    private static final String SECRET = "TajEatsSecretKeyForJWTTokenGenerationAndValidation2026MustBeAtLeast256BitsLong";
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TokenRevocationList revocationList;
+
+    private RefreshTokenService service;
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 900_000L);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        service = new RefreshTokenService(refreshTokenRepository, userRepository, jwtUtil, revocationList);
+        ReflectionTestUtils.setField(service, "refreshExpiration", 1_209_600_000L);
+
+        owner = new User();
+        owner.setId(7L);
+        owner.setEmail("owner@tajeats.test");
+        owner.setRole(User.Role.RESTAURANT_OWNER);
+        owner.setRestaurantId(42L);
+        owner.setIsApproved(true);
+    }
+
+    @Test
+    void refreshRotatesWithinTheFamily() {
+        AuthTokens first = service.issue(owner);
+        RefreshToken stored = lastSaved();
+        when(refreshTokenRepository.findByTokenHash(stored.getTokenHash())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.markUsed(eq(stored.getId()), any())).thenReturn(1);
+        when(userRepository.findById(7L)).thenReturn(Optional.of(owner));
+
+        AuthTokens second = service.refresh(first.refreshToken());
+
+        assertNotEquals(first.refreshToken(), second.refreshToken());
+        RefreshToken rotated = lastSaved();
+        assertEquals(stored.getFamilyId(), rotated.getFamilyId());
+        assertNotEquals(stored.getTokenHash(), rotated.getTokenHash());
+        verify(refreshTokenRepository, never()).revokeFamily(any(), any());
+    }
+
+    @Test
+    void reusedTokenRevokesTheWholeFamily() {
+        AuthTokens first = service.issue(owner);
+        RefreshToken stored = lastSaved();
+        stored.setId(1L);
+        // Already rotated by an earlier refresh
+        when(refreshTokenRepository.findByTokenHash(stored.getTokenHash())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.markUsed(eq(1L), any())).thenReturn(0);
+        when(refreshTokenRepository.findByFamilyId(stored.getFamilyId())).thenReturn(List.of(stored));
+
+        assertThrows(InvalidCredentialsException.class, () -> service.refresh(first.refreshToken()));
+
+        verify(refreshTokenRepository).revokeFamily(eq(stored.getFamilyId()), any());
+        // The access token issued with it is still live, so it is revoked too
+        verify(revocationList).revokeAll(Map.of(stored.getAccessJti(), stored.getAccessExpiresAt()));
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void unapprovedOrDeletedUsersCannotRefresh() {
+        AuthTokens first = service.issue(owner);
+        RefreshToken stored = lastSaved();
+        when(refreshTokenRepository.findByTokenHash(stored.getTokenHash())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.markUsed(any(), any())).thenReturn(1);
+
+        owner.setIsApproved(false);
+        when(userRepository.findById(7L)).thenReturn(Optional.of(owner));
+        assertThrows(InvalidCredentialsException.class, () -> service.refresh(first.refreshToken()));
+
+        when(userRepository.findById(7L)).thenReturn(Optional.empty());
+        assertThrows(InvalidCredentialsException.class, () -> service.refresh(first.refreshToken()));
+
+        verify(refreshTokenRepository, times(2)).revokeFamily(eq(stored.getFamilyId()), any());
+        verify(revocationList, times(2)).revokeAll(anyMap());
+        // Only the pair from issue() was ever saved
+        verify(refreshTokenRepository, times(1)).save(any());
+    }
+
+    @Test
+    void expiredOrUnknownTokensAreRejected() {
+        AuthTokens first = service.issue(owner);
+        RefreshToken stored = lastSaved();
+        stored.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        when(refreshTokenRepository.findByTokenHash(stored.getTokenHash())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.markUsed(any(), any())).thenReturn(1);
+
+        assertThrows(InvalidCredentialsException.class, () -> service.refresh(first.refreshToken()));
+        assertThrows(InvalidCredentialsException.class, () -> service.refresh("not-a-token"));
+        assertThrows(InvalidCredentialsException.class, () -> service.refresh(null));
+    }
+
+    // ---------- Helpers ----------
+    private RefreshToken lastSaved() {
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository, atLeastOnce()).save(saved.capture());
+        return saved.getValue();
+    }
+}
@@ -0,0 +1,85 @@
+package com.tajeats.tajeats_backend.service;
+
+import com.tajeats.tajeats_backend.exception.ResourceNotFoundException;
+import com.tajeats.tajeats_backend.repository.CartItemRepository;
+import com.tajeats.tajeats_backend.repository.DishRepository;
+import com.tajeats.tajeats_backend.repository.RestaurantRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RestaurantServiceTest {
+
+    private static final long RESTAURANT_ID = 42L;
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    @Mock
+    private DishRepository dishRepository;
+
+    @Mock
+    private CartItemRepository cartItemRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private RestaurantService restaurantService;
+
+    @Test
+    void deleteDisablesDishesPurgesCartLinesAndReleasesPhotos() {
+        int chunk = RestaurantService.DELETE_CHUNK_SIZE;
+        when(restaurantRepository.softDelete(eq(RESTAURANT_ID), any())).thenReturn(Optional.of(images("a.jpg", null)));
+        // Two full chunks of open cart lines, then the remainder
+        when(cartItemRepository.deleteSessionItemsChunkByRestaurantId(RESTAURANT_ID, chunk))
+                .thenReturn(chunk, chunk, 40);
+
+        restaurantService.delete(RESTAURANT_ID);
+
+        verify(dishRepository).disableByRestaurantId(RESTAURANT_ID);
+        verify(cartItemRepository, times(3)).deleteSessionItemsChunkByRestaurantId(RESTAURANT_ID, chunk);
+        verify(eventPublisher).publishEvent(new MenuChangedEvent(RESTAURANT_ID));
+        verify(eventPublisher).publishEvent(new RestaurantChangedEvent(RESTAURANT_ID));
+        verify(eventPublisher).publishEvent(new ImageReleasedEvent("a.jpg"));
+        verify(eventPublisher, never()).publishEvent(new ImageReleasedEvent(null));
+    }
+
+    @Test
+    void deleteOfUnknownRestaurantTouchesNothingElse() {
+        when(restaurantRepository.softDelete(eq(RESTAURANT_ID), any())).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> restaurantService.delete(RESTAURANT_ID));
+
+        verifyNoInteractions(dishRepository, cartItemRepository, eventPublisher);
+    }
+
+    private static RestaurantRepository.DeletedImagesView images(String image, String logo) {
+        return new RestaurantRepository.DeletedImagesView() {
+            @Override
+            public String getImage() {
+                return image;
+            }
+
+            @Override
+            public String getLogo() {
+                return logo;
+            }
+        };
+    }
+}
@@ -0,0 +1,179 @@
+package com.tajeats.tajeats_backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tajeats.tajeats_backend.dto.ReviewDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewWriteBehindServiceTest {
+
+    private static final long RESTAURANT_ID = 42L;
+
+    @Mock
+    private ReviewService reviewService;
+
+    @Mock
+    private CatalogCache catalogCache;
+
+    @TempDir
+    Path dir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private ReviewWriteBehindService service;
+    private Path journal;
+    private Path deadLetter;
+
+    @BeforeEach
+    void setUp() {
+        journal = dir.resolve("review-journal.log");
+        deadLetter = dir.resolve("review-dead-letter.log");
+        service = new ReviewWriteBehindService(reviewService, catalogCache, objectMapper);
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "capacity", 100);
+        ReflectionTestUtils.setField(service, "batchSize", 500);
+        ReflectionTestUtils.setField(service, "maxAttempts", 3);
+        ReflectionTestUtils.setField(service, "journalPath", journal.toString());
+        ReflectionTestUtils.setField(service, "deadLetterPath", deadLetter.toString());
+    }
+
+    @Test
+    void replaysBothJournalSegmentsOnStartup() throws Exception {
+        Files.write(Path.of(journal + ".flushing"), List.of(json(pending("a"))), StandardCharsets.UTF_8);
+        Files.write(journal, List.of(json(pending("b"))), StandardCharsets.UTF_8);
+
+        service.start();
+        service.flush();
+
+        assertEquals(List.of("a", "b"), written().get(0));
+        assertFalse(Files.exists(Path.of(journal + ".flushing")));
+        assertTrue(Files.readAllLines(journal).isEmpty());
+    }
+
+    @Test
+    void submissionsDuringAFlushLandInTheFreshJournal() throws Exception {
+        service.start();
+        service.submit(review(), "s1");
+        when(reviewService.createBatch(anyList())).thenAnswer(call -> {
+            // The journal was rotated before writing, so this goes to the new segment
+            service.submit(review(), "s2");
+            return 1;
+        }).thenReturn(1);
+
+        service.flush();
+
+        List<String> lines = Files.readAllLines(journal);
+        assertEquals(1, lines.size());
+        assertEquals("s2", objectMapper.readValue(lines.get(0), PendingReview.class).sessionId());
+        assertTrue(service.pendingFor("s1", RESTAURANT_ID).isEmpty());
+        assertEquals(1, service.pendingFor("s2", RESTAURANT_ID).size());
+    }
+
+    @Test
+    void badRowIsIsolatedRetriedAndDeadLettered() throws Exception {
+        service.start();
+        for (int i = 0; i < 4; i++) {
+            service.submit(review(), "s" + i);
+        }
+        String bad = objectMapper.readValue(Files.readAllLines(journal).get(2), PendingReview.class).submissionId();
+        when(reviewService.createBatch(anyList())).thenAnswer(call -> {
+            List<PendingReview> chunk = call.getArgument(0);
+            if (chunk.stream().anyMatch(r -> r.submissionId().equals(bad))) {
+                throw new DataIntegrityViolationException("constraint");
+            }
+            return chunk.size();
+        });
+
+        service.flush();
+        // The three valid reviews are written; the bad one stays queued and journaled
+        assertEquals(1, Files.readAllLines(journal).size());
+        assertEquals(1, service.pendingFor("s2", RESTAURANT_ID).size());
+
+        service.flush();
+        service.flush();
+        assertTrue(Files.readAllLines(journal).isEmpty());
+        assertTrue(service.pendingFor("s2", RESTAURANT_ID).isEmpty());
+        List<String> dead = Files.readAllLines(deadLetter);
+        assertEquals(1, dead.size());
+        assertEquals(bad, objectMapper.readValue(dead.get(0), PendingReview.class).submissionId());
+    }
+
+    @Test
+    void outageRetriesWholeChunkWithoutCountingAttempts() throws Exception {
+        service.start();
+        service.submit(review(), "s1");
+        when(reviewService.createBatch(anyList())).thenThrow(new IllegalStateException("database down"));
+
+        for (int i = 0; i < 5; i++) {
+            service.flush();
+        }
+
+        assertEquals(1, Files.readAllLines(journal).size());
+        assertFalse(Files.exists(deadLetter));
+    }
+
+    @Test
+    void fullQueueFallsBackToSynchronousWrite() throws Exception {
+        ReflectionTestUtils.setField(service, "capacity", 1);
+        service.start();
+
+        assertTrue(service.submit(review(), "s1").queued());
+        assertFalse(service.submit(review(), "s2").queued());
+
+        verify(reviewService, times(1)).create(any());
+        assertEquals(1, Files.readAllLines(journal).size());
+    }
+
+    // ---------- Helpers ----------
+    private List<List<String>> written() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<PendingReview>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(reviewService, atLeastOnce()).createBatch(chunks.capture());
+        List<List<String>> ids = new ArrayList<>();
+        for (List<PendingReview> chunk : chunks.getAllValues()) {
+            ids.add(chunk.stream().map(PendingReview::submissionId).toList());
+        }
+        return ids;
+    }
+
+    private static ReviewDTO review() {
+        ReviewDTO dto = new ReviewDTO();
+        dto.setRestaurantId(RESTAURANT_ID);
+        dto.setUserName("Guest");
+        dto.setRating(4);
+        dto.setComment("Good");
+        return dto;
+    }
+
+    private static PendingReview pending(String submissionId) {
+        return new PendingReview(submissionId, null, RESTAURANT_ID, "Guest", null, 5, "Great", LocalDate.now());
+    }
+
+    private String json(PendingReview review) throws Exception {
+        return objectMapper.writeValueAsString(review);
+    }
+}
@@ -0,0 +1,73 @@
+package com.tajeats.tajeats_backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpaceSavingTopKTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    @Test
+    void ranksItemsByCount() {
+        SpaceSavingTopK sketch = new SpaceSavingTopK(8, 72 * HOUR, 0);
+        sketch.offer(1, 5, 0);
+        sketch.offer(2, 9, 0);
+        sketch.offer(3, 2, 0);
+
+        assertEquals(List.of(2L, 1L), sketch.top(2));
+        assertEquals(List.of(2L, 1L, 3L), sketch.top(10));
+        assertEquals(16, sketch.hitsOffered());
+    }
+
+    @Test
+    void heavyHittersSurviveEvictionOfRareItems() {
+        SpaceSavingTopK sketch = new SpaceSavingTopK(4, 72 * HOUR, 0);
+        for (int round = 0; round < 100; round++) {
+            sketch.offer(1, 3, 0);
+            sketch.offer(2, 2, 0);
+            // A long tail of one-off items churns through the remaining counters
+            sketch.offer(1_000 + round, 1, 0);
+        }
+
+        assertEquals(List.of(1L, 2L), sketch.top(2));
+    }
+
+    @Test
+    void olderHitsDecay() {
+        SpaceSavingTopK sketch = new SpaceSavingTopK(8, HOUR, 0);
+        sketch.offer(1, 10, 0);
+        // Four half-lives later, 10 old hits weigh less than 1 new one
+        sketch.offer(2, 1, 4 * HOUR);
+
+        assertEquals(List.of(2L, 1L), sketch.top(2));
+    }
+
+    @Test
+    void rescalingKeepsTheRanking() {
+        SpaceSavingTopK sketch = new SpaceSavingTopK(8, HOUR, 0);
+        sketch.offer(1, 3, 0);
+        sketch.offer(2, 2, 0);
+        // Far enough ahead to force a rescale; both decay alike, then 3 is added on top
+        sketch.offer(3, 1, 50 * HOUR);
+
+        List<Long> top = sketch.top(3);
+        assertEquals(3L, top.get(0));
+        assertEquals(List.of(1L, 2L), top.subList(1, 3));
+    }
+
+    @Test
+    void ignoresNonPositiveHitsAndRejectsBadArguments() {
+        SpaceSavingTopK sketch = new SpaceSavingTopK(2, HOUR, 0);
+        sketch.offer(1, 0, 0);
+        sketch.offer(1, -3, 0);
+
+        assertTrue(sketch.top(5).isEmpty());
+        assertEquals(0, sketch.hitsOffered());
+        assertThrows(IllegalArgumentException.class, () -> new SpaceSavingTopK(0, HOUR, 0));
+    }
+}
@@ -1,7 +1,7 @@
 import React, { createContext, useContext, useState, useEffect, type ReactNode } from 'react';
 import { authService } from '@/services/authService';
 import type { UserDTO } from '@/types/api';
-import { getToken, setToken as saveToken, removeToken, isTokenExpired } from '@/lib/tokenManager';
+import { getToken, setToken as saveToken, removeToken, isTokenExpired, getRefreshToken, setRefreshToken } from '@/lib/tokenManager';
 
 // Auth interfaces - mapped from backend
 export interface User {
@@ -79,8 +79,8 @@ export const AuthProvider: React.FC<AuthProviderProps> = ({ children }) => {
             try {
                 const storedToken = getToken();
                 
-                if (storedToken && !isTokenExpired(storedToken)) {
-                    // Token exists and is valid - fetch user info
+                if (storedToken && (!isTokenExpired(storedToken) || getRefreshToken())) {
+                    // Token exists and is valid or renewable - fetch user info (api.ts refreshes on 401)
                     setTokenState(storedToken);
                     
                     try {
@@ -118,6 +118,9 @@ export const AuthProvider: React.FC<AuthProviderProps> = ({ children }) => {
             if (response.token && response.user) {
                 // Save token
                 saveToken(response.token);
+                if (response.refreshToken) {
+                    setRefreshToken(response.refreshToken);
+                }
                 setTokenState(response.token);
                 
                 // Convert and save user
@@ -138,13 +141,14 @@ export const AuthProvider: React.FC<AuthProviderProps> = ({ children }) => {
     };
 
     const logout = () => {
+        // Revoke server-side before the tokens are cleared locally
+        authService.logout().finally(removeToken);
         setUser(null);
         setTokenState(null);
-        removeToken();
-        authService.logout();
     };
 
-    const isAuthenticated = !!user && !!token && !isTokenExpired(token) && user.isApproved;
+    // An expired access token still counts while it can be refreshed
+    const isAuthenticated = !!user && !!token && (!isTokenExpired(token) || !!getRefreshToken()) && user.isApproved;
 
     // Show loading state while initializing
     if (isLoading) {
@@ -11,6 +11,7 @@ interface CartContextType {
     removeFromCart: (dishId: string) => Promise<void>;
     updateQuantity: (dishId: string, quantity: number) => Promise<void>;
     clearCart: () => Promise<void>;
+    forgetCart: () => void;
     getTotalPrice: () => number;
     getTotalItems: () => number;
     refreshCart: () => Promise<void>;
@@ -166,6 +167,12 @@ export const CartProvider: React.FC<CartProviderProps> = ({ children }) => {
         }
     };
 
+    // Local only: checkout already emptied the cart on the server
+    const forgetCart = () => {
+        setError(null);
+        setItems([]);
+    };
+
     const getTotalPrice = () => {
         return items.reduce((total, item) => total + (item.dish.price * item.quantity), 0);
     };
@@ -183,6 +190,7 @@ export const CartProvider: React.FC<CartProviderProps> = ({ children }) => {
             removeFromCart,
             updateQuantity,
             clearCart,
+            forgetCart,
             getTotalPrice,
             getTotalItems,
             refreshCart,
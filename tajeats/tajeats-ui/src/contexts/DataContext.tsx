@@ -37,6 +37,9 @@ const convertRestaurantFromAPI = (dto: RestaurantDTO): Restaurant => ({
     openingSunday: dto.openingSunday,
 });
 
+// Restaurants shown on the landing page, in the server's discovery ranking
+const FEATURED_COUNT = 6;
+
 const convertDishFromAPI = (dto: DishDTO): Dish => ({
     id: dto.id.toString(),
     restaurantId: dto.restaurantId.toString(),
@@ -77,6 +80,7 @@ const convertReviewFromAPI = (dto: ReviewDTO): Review => ({
 interface DataContextType {
     // Restaurants
     restaurants: Restaurant[];
+    featuredRestaurants: Restaurant[];
     isLoadingRestaurants: boolean;
     restaurantsError: string | null;
     addRestaurant: (restaurant: Omit<Restaurant, 'id'>) => Promise<Restaurant>;
@@ -131,6 +135,7 @@ interface DataProviderProps {
 export const DataProvider: React.FC<DataProviderProps> = ({ children }) => {
     // State
     const [restaurants, setRestaurants] = useState<Restaurant[]>([]);
+    const [featuredRestaurants, setFeaturedRestaurants] = useState<Restaurant[]>([]);
     const [isLoadingRestaurants, setIsLoadingRestaurants] = useState(false);
     const [restaurantsError, setRestaurantsError] = useState<string | null>(null);
 
@@ -159,8 +164,16 @@ export const DataProvider: React.FC<DataProviderProps> = ({ children }) => {
         setIsLoadingRestaurants(true);
         setRestaurantsError(null);
         try {
-            const data = await restaurantService.getAll();
-            setRestaurants(data.map(convertRestaurantFromAPI));
+            const [data, feed] = await Promise.all([
+                restaurantService.getAll(),
+                // The listing still works without the feed, it just loses the ranking
+                restaurantService.getFeed({ size: FEATURED_COUNT }).catch(() => null),
+            ]);
+            const all = data.map(convertRestaurantFromAPI);
+            setRestaurants(all);
+            setFeaturedRestaurants(feed && feed.items.length > 0
+                ? feed.items.map(convertRestaurantFromAPI)
+                : all.slice(0, FEATURED_COUNT));
         } catch (error: any) {
             setRestaurantsError(error.message || 'Failed to fetch restaurants');
             console.error('Error fetching restaurants:', error);
@@ -432,6 +445,7 @@ export const DataProvider: React.FC<DataProviderProps> = ({ children }) => {
     return (
         <DataContext.Provider value={{
             restaurants,
+            featuredRestaurants,
             isLoadingRestaurants,
             restaurantsError,
             addRestaurant,
@@ -1,6 +1,6 @@
-import axios, { type AxiosInstance, AxiosError } from 'axios';
+import axios, { type AxiosInstance, AxiosError, type InternalAxiosRequestConfig } from 'axios';
 import { getOrCreateSessionId } from './sessionManager';
-import { getToken, removeToken } from './tokenManager';
+import { getToken, removeToken, getRefreshToken, setToken, setRefreshToken } from './tokenManager';
 
 const API_BASE_URL = import.meta.env.VITE_API_URL || 'http://localhost:8080/api';
 
@@ -33,10 +33,49 @@ apiClient.interceptors.request.use(
   }
 );
 
+// Single in-flight refresh shared by every request that hit a 401 at the same time
+let refreshInFlight: Promise<string | null> | null = null;
+
+const refreshAccessToken = (): Promise<string | null> => {
+  const refreshToken = getRefreshToken();
+  if (!refreshToken) {
+    return Promise.resolve(null);
+  }
+  if (!refreshInFlight) {
+    // Plain axios so this call skips the interceptors below
+    refreshInFlight = axios
+      .post(`${API_BASE_URL}/auth/refresh`, { refreshToken })
+      .then((response) => {
+        setToken(response.data.token);
+        setRefreshToken(response.data.refreshToken);
+        return response.data.token as string;
+      })
+      .catch(() => null)
+      .finally(() => {
+        refreshInFlight = null;
+      });
+  }
+  return refreshInFlight;
+};
+
+// Auth calls that must never trigger a refresh (the refresh itself, or credentials being checked)
+const NO_REFRESH_PATHS = ['/auth/login', '/auth/register', '/auth/refresh', '/auth/logout'];
+
 // Response interceptor - Handle errors globally
 apiClient.interceptors.response.use(
   (response) => response,
-  (error: AxiosError) => {
+  async (error: AxiosError) => {
+    // Expired access token: renew once and replay the request
+    const original = error.config as (InternalAxiosRequestConfig & { _retried?: boolean }) | undefined;
+    if (error.response?.status === 401 && original && !original._retried && !NO_REFRESH_PATHS.some((path) => original.url?.startsWith(path))) {
+      original._retried = true;
+      const token = await refreshAccessToken();
+      if (token) {
+        original.headers['Authorization'] = `Bearer ${token}`;
+        return apiClient(original);
+      }
+    }
+
     if (error.response) {
       const status = error.response.status;
       const data: any = error.response.data;
@@ -1,6 +1,7 @@
 // Token Manager - Handles JWT token storage and validation
 
 const TOKEN_KEY = 'tajeats_jwt_token';
+const REFRESH_TOKEN_KEY = 'tajeats_refresh_token';
 
 export const getToken = (): string | null => {
   return localStorage.getItem(TOKEN_KEY);
@@ -10,8 +11,18 @@ export const setToken = (token: string): void => {
   localStorage.setItem(TOKEN_KEY, token);
 };
 
+// Clears both tokens - the refresh token is useless without a session
 export const removeToken = (): void => {
   localStorage.removeItem(TOKEN_KEY);
+  localStorage.removeItem(REFRESH_TOKEN_KEY);
+};
+
+export const getRefreshToken = (): string | null => {
+  return localStorage.getItem(REFRESH_TOKEN_KEY);
+};
+
+export const setRefreshToken = (token: string): void => {
+  localStorage.setItem(REFRESH_TOKEN_KEY, token);
 };
 
 export const isTokenExpired = (token: string): boolean => {
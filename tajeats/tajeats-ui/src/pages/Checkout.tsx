@@ -12,11 +12,10 @@ import { useCart } from '@/contexts/CartContext';
 import { useData } from '@/contexts/DataContext';
 import { useToast } from '@/hooks/use-toast';
 import { orderService } from '@/services/orderService';
-import type { OrderDTO } from '@/types/api';
 
 const Checkout: React.FC = () => {
     const navigate = useNavigate();
-    const { items, getTotalPrice, clearCart } = useCart();
+    const { items, getTotalPrice, forgetCart } = useCart();
     const { restaurants } = useData();
     const { toast } = useToast();
 
@@ -72,25 +71,14 @@ const Checkout: React.FC = () => {
         setIsLoading(true);
 
         try {
-            // Transform cart items to OrderDTO format
-            const orderDTO: OrderDTO = {
-                restaurantId: Number(items[0].dish.restaurantId), // Get from first item
+            // The server prices the session cart, places the order and empties the cart in one call
+            const createdOrder = await orderService.checkout({
                 customerName: formData.fullName,
                 customerPhone: formData.phone,
                 customerAddress: formData.deliveryType === 'PICKUP' ? 'Selbstabholung' : formData.address,
-                total: total,
                 deliveryType: formData.deliveryType,
-                items: items.map(item => ({
-                    dishId: Number(item.dish.id),
-                    quantity: item.quantity,
-                })),
-            };
-
-            // Create order via API
-            const createdOrder = await orderService.create(orderDTO);
-
-            // Clear cart after successful order
-            await clearCart();
+            });
+            forgetCart();
 
             toast({
                 title: "Order placed successfully!",
@@ -10,8 +10,7 @@ import heroBanner from '@/assets/hero-banner.jpg';
 import { motion } from 'framer-motion';
 
 const Landing: React.FC = () => {
-    const { restaurants } = useData();
-    const featuredRestaurants = restaurants.slice(0, 6);
+    const { featuredRestaurants } = useData();
 
     const containerVariants = {
         hidden: { opacity: 0 },
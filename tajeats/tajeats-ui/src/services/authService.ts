@@ -1,4 +1,5 @@
 import apiClient from '@/lib/api';
+import { getRefreshToken } from '@/lib/tokenManager';
 import type { LoginRequest, RegisterRequest, AuthResponse, UserDTO } from '@/types/api';
 
 export const authService = {
@@ -19,7 +20,8 @@ export const authService = {
   },
 
   async logout(): Promise<void> {
-    // No backend call needed - just remove token locally
-    return Promise.resolve();
+    // Revokes the refresh token family and the current access token
+    const refreshToken = getRefreshToken();
+    await apiClient.post('/auth/logout', { refreshToken }).catch(() => undefined);
   },
 };
@@ -1,4 +1,5 @@
 import apiClient from '@/lib/api';
+import { getOrCreateSessionId } from '@/lib/sessionManager';
 import type { OrderDTO } from '@/types/api';
 
 export const orderService = {
@@ -26,6 +27,17 @@ export const orderService = {
     return response.data;
   },
 
+  /**
+   * Place the current session's cart as an order (the server prices it and empties the cart)
+   */
+  async checkout(
+    data: Pick<OrderDTO, 'customerName' | 'customerPhone' | 'customerAddress' | 'deliveryType'>
+  ): Promise<OrderDTO> {
+    const sessionId = getOrCreateSessionId();
+    const response = await apiClient.post<OrderDTO>(`/orders/checkout/${sessionId}`, data);
+    return response.data;
+  },
+
   /**
    * Update order status
    */
@@ -10,6 +10,20 @@ export const restaurantService = {
     return response.data;
   },
 
+  /**
+   * Get a page of the server-ranked discovery feed
+   */
+  async getFeed(params: { city?: string; category?: string; page?: number; size?: number } = {}): Promise<{
+    items: RestaurantDTO[];
+    page: number;
+    size: number;
+    totalItems: number;
+    generatedAt: string | null;
+  }> {
+    const response = await apiClient.get('/restaurants/feed', { params });
+    return response.data;
+  },
+
   /**
    * Get restaurant by ID
    */
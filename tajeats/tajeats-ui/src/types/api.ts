@@ -4,6 +4,8 @@ export interface RestaurantDTO {
   id: number;
   name: string;
   image: string;
+  imageSrcset?: string;
+  imageWebpSrcset?: string;
   logo?: string;
   category: string;
   rating: number;
@@ -45,6 +47,8 @@ export interface DishDTO {
   description: string;
   price: number;
   image: string;
+  imageSrcset?: string;
+  imageWebpSrcset?: string;
   category: string;
   isAvailable: boolean;
   isPopular?: boolean;
@@ -126,6 +130,7 @@ export interface RegisterRequest {
 
 export interface AuthResponse {
   token: string;
+  refreshToken?: string;
   user: UserDTO;
   message?: string;
 }